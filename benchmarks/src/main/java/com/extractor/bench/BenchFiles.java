@@ -0,0 +1,53 @@
+package com.extractor.bench;
+
+import com.extractor.ui.ProgressCallback;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Scratch directory helpers shared by benchmarks.
+ */
+final class BenchFiles {
+
+    /**
+     * Callback discarding all progress and log output.
+     */
+    static final ProgressCallback SILENT = new ProgressCallback() {
+        @Override
+        public void update(String message, int percent) {
+        }
+
+        @Override
+        public void log(String message) {
+        }
+    };
+
+    private BenchFiles() {
+    }
+
+    /**
+     * Creates a scratch directory under {@code -Dbench.dir} or the system temp directory.
+     */
+    static Path createScratchDir(String prefix) throws IOException {
+        Path base = Paths.get(System.getProperty("bench.dir", System.getProperty("java.io.tmpdir")));
+        Files.createDirectories(base);
+        return Files.createTempDirectory(base, "jsextract-" + prefix + "-");
+    }
+
+    /**
+     * Deletes a directory tree.
+     */
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
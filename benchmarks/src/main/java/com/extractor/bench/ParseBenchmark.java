@@ -0,0 +1,55 @@
+package com.extractor.bench;
+
+import com.extractor.model.FieldData;
+import com.extractor.parser.JsonFormulaParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JsonFormulaParser#parse} over an in-memory definition,
+ * isolating JSON parsing from disk I/O.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"1000", "10000"})
+    public int fieldCount;
+
+    @Param({"500"})
+    public int formulaSize;
+
+    @Param({"4"})
+    public int fanOut;
+
+    @Param({"0.0", "0.75"})
+    public double noiseRatio;
+
+    @Param({"0.3"})
+    public double duplicateRatio;
+
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = new SyntheticDefinition(fieldCount, formulaSize, fanOut, noiseRatio, duplicateRatio).generate();
+    }
+
+    @Benchmark
+    public List<FieldData> parseString() {
+        return new JsonFormulaParser().parse(json);
+    }
+
+    @Benchmark
+    public List<FieldData> parseReader() throws IOException {
+        return new JsonFormulaParser().parse(new StringReader(json));
+    }
+}
@@ -0,0 +1,76 @@
+package com.extractor.bench;
+
+import com.extractor.output.OutputManifest;
+import com.extractor.output.OutputMode;
+import com.extractor.output.WriteOptions;
+import com.extractor.pipeline.ExtractionPipeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end folder extraction through {@link ExtractionPipeline}, as run by the
+ * GUI and the batch mode, starting from a definition file on disk: read → parse →
+ * write, plus the dependency graph export and, with shared formulas, deduplication.
+ * Without shared formulas parsing and writing are pipelined.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"1000", "10000"})
+    public int fieldCount;
+
+    @Param({"500"})
+    public int formulaSize;
+
+    @Param({"4"})
+    public int fanOut;
+
+    @Param({"0.75"})
+    public double noiseRatio;
+
+    @Param({"0.3"})
+    public double duplicateRatio;
+
+    @Param({"8"})
+    public int parallelism;
+
+    @Param({"false", "true"})
+    public boolean shareFormulas;
+
+    private Path workDir;
+    private Path input;
+    private Path outDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = BenchFiles.createScratchDir("pipeline");
+        input = workDir.resolve("definition.json");
+        outDir = workDir.resolve("out");
+        new SyntheticDefinition(fieldCount, formulaSize, fanOut, noiseRatio, duplicateRatio).writeTo(input);
+    }
+
+    @Setup(Level.Invocation)
+    public void forgetManifest() throws IOException {
+        Files.deleteIfExists(outDir.resolve(OutputManifest.FILE_NAME));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchFiles.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public ExtractionPipeline.Result extract() throws IOException {
+        WriteOptions options = new WriteOptions(OutputMode.FOLDER, true, parallelism, shareFormulas, false, false);
+        return new ExtractionPipeline().run(input.toString(), outDir.toFile(), options, BenchFiles.SILENT);
+    }
+}
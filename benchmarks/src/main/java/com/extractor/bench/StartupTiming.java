@@ -0,0 +1,81 @@
+package com.extractor.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures start-to-first-frame of the GUI by launching it repeatedly.
+ * <p>
+ * Not a JMH benchmark: every sample is a fresh JVM, which is what class data
+ * sharing changes. The application is started with
+ * {@code -Dextractor.startupTiming=true -Dextractor.exitAfterFirstFrame=true},
+ * so it prints the time from process start to the opened window and exits.
+ * Requires a display.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.extractor.bench.StartupTiming 10 \
+ *      target/jre-mini/bin/java -jar target/JsonToJsExtractor.jar
+ * </pre>
+ * The first argument is the number of launches, the rest is the launch command;
+ * the properties are inserted after its first element, the {@code java} executable.
+ */
+public final class StartupTiming {
+
+    private static final Pattern TIMING = Pattern.compile("Start to first frame: (\\d+) ms");
+
+    private StartupTiming() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: StartupTiming <runs> <java> [jvm options] -jar <JsonToJsExtractor.jar>");
+            System.exit(2);
+        }
+
+        int runs = Integer.parseInt(args[0]);
+        List<String> command = new ArrayList<>();
+        command.add(args[1]);
+        command.add("-Dextractor.startupTiming=true");
+        command.add("-Dextractor.exitAfterFirstFrame=true");
+        command.addAll(Arrays.asList(args).subList(2, args.length));
+
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            samples[i] = launch(command);
+            System.out.printf("Run %d: %d ms%n", i + 1, samples[i]);
+        }
+
+        Arrays.sort(samples);
+        System.out.printf("Start to first frame over %d runs: min %d ms, median %d ms, mean %.0f ms%n",
+                runs, samples[0], samples[runs / 2], Arrays.stream(samples).average().orElse(0));
+    }
+
+    /**
+     * Starts the application once and waits for it to exit.
+     *
+     * @return Reported start-to-first-frame time in milliseconds
+     */
+    private static long launch(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Long millis = null;
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                Matcher m = TIMING.matcher(line);
+                if (m.find()) millis = Long.parseLong(m.group(1));
+            }
+        }
+        int exit = process.waitFor();
+        if (millis == null) {
+            throw new IOException("No startup time reported (exit code " + exit + "); is a display available?");
+        }
+        return millis;
+    }
+}
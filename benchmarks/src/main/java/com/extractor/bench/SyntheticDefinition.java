@@ -0,0 +1,198 @@
+package com.extractor.bench;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generator of synthetic Pepperi transaction definitions.
+ * <p>
+ * Produces JSON shaped like a real export: {@code Fields} and {@code LineFields}
+ * arrays of calculated fields plus layout/UI/config sub-trees the extractor
+ * never looks at. Participating fields name other generated fields, so the
+ * dependency graph has real edges, and a share of the fields carry one of a few
+ * helper bodies copied verbatim, as configurators do, so deduplication has work.
+ * Output is deterministic for a given configuration.
+ *
+ * @param fieldCount     Total number of calculated fields (split between header and line fields)
+ * @param formulaSize    Approximate length of each JSFormula body in characters
+ * @param fanOut         Number of participating fields per calculated field
+ * @param noiseRatio     Approximate share of the document made of irrelevant payload (0 ≤ ratio &lt; 1)
+ * @param duplicateRatio Approximate share of fields whose body is a copy of a shared helper (0 ≤ ratio ≤ 1)
+ */
+public record SyntheticDefinition(
+        int fieldCount,
+        int formulaSize,
+        int fanOut,
+        double noiseRatio,
+        double duplicateRatio
+) {
+
+    private static final long SEED = 0x5EED_CAFEL;
+
+    private static final String[] TRIGGERS = {"OnLoad", "OnChange", "OnSave"};
+    private static final String[] TYPES = {"Number", "Text", "Boolean", "Date"};
+
+    /**
+     * Number of distinct helper bodies that duplicated formulas are copies of.
+     */
+    private static final int SHARED_BODIES = 8;
+
+    /**
+     * Validates the configuration.
+     */
+    public SyntheticDefinition {
+        if (fieldCount < 0 || formulaSize < 0 || fanOut < 0) {
+            throw new IllegalArgumentException("Sizes must not be negative");
+        }
+        if (noiseRatio < 0 || noiseRatio >= 1) {
+            throw new IllegalArgumentException("noiseRatio must be in [0, 1)");
+        }
+        if (duplicateRatio < 0 || duplicateRatio > 1) {
+            throw new IllegalArgumentException("duplicateRatio must be in [0, 1]");
+        }
+    }
+
+    /**
+     * @return Generated definition as a JSON string
+     */
+    public String generate() {
+        StringWriter out = new StringWriter();
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Generates the definition into a UTF-8 file.
+     *
+     * @param file Target file
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Streams the generated definition to a writer.
+     *
+     * @param out Target writer (not closed)
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Writer out) throws IOException {
+        Random random = new Random(SEED);
+        JsonWriter json = new JsonWriter(out);
+
+        // Irrelevant bytes to emit per calculated field to reach the requested share
+        long relevantPerField = formulaSize + 160L + fanOut * 24L;
+        long noisePerField = (long) (relevantPerField * noiseRatio / (1 - noiseRatio));
+
+        int headerCount = headerCount();
+
+        json.beginObject();
+        json.name("InternalID").value(42);
+        json.name("Name").value("Synthetic Transaction");
+
+        // Root-level noise is emitted before the fields, as in real exports
+        json.name("Layout");
+        writeNoise(json, random, noisePerField * fieldCount / 2);
+
+        json.name("Fields").beginArray();
+        for (int i = 0; i < headerCount; i++) {
+            writeField(json, random, fieldId(i), noisePerField / 2);
+        }
+        json.endArray();
+
+        json.name("LineFields").beginArray();
+        for (int i = headerCount; i < fieldCount; i++) {
+            writeField(json, random, fieldId(i), noisePerField / 2);
+        }
+        json.endArray();
+
+        json.name("Settings");
+        writeNoise(json, random, 256);
+
+        json.endObject();
+        json.flush();
+    }
+
+    private void writeField(JsonWriter json, Random random, String fieldId, long noiseBytes) throws IOException {
+        json.beginObject();
+        json.name("FieldID").value(fieldId);
+        json.name("Label").value(fieldId + " Label");
+        json.name("Type").value(TYPES[random.nextInt(TYPES.length)]);
+
+        json.name("UIConfiguration");
+        writeNoise(json, random, noiseBytes);
+
+        json.name("CalculatedRuleEngine").beginObject();
+        boolean shared = random.nextDouble() < duplicateRatio;
+        json.name("JSFormula").value(shared
+                ? formula(new Random(SEED + random.nextInt(SHARED_BODIES)), "sharedHelper")
+                : formula(random, fieldId));
+        json.name("ParticipatingFields").beginArray();
+        for (int i = 0; i < fanOut; i++) {
+            json.value(fieldId(random.nextInt(fieldCount)));
+        }
+        json.endArray();
+        json.name("CalculatedOn").beginObject();
+        json.name("Name").value(TRIGGERS[random.nextInt(TRIGGERS.length)]);
+        json.endObject();
+        json.endObject();
+
+        json.endObject();
+    }
+
+    private int headerCount() {
+        return fieldCount / 4;
+    }
+
+    /**
+     * @return FieldID of the {@code index}-th generated field
+     */
+    private String fieldId(int index) {
+        return index < headerCount() ? "TSAHeader" + index : "TSALine" + index;
+    }
+
+    private String formula(Random random, String fieldId) {
+        StringBuilder sb = new StringBuilder(formulaSize + 64);
+        sb.append("function ").append(fieldId).append("() {\n");
+        while (sb.length() < formulaSize) {
+            sb.append("  var v").append(random.nextInt(1000))
+                    .append(" = item.qty * ").append(random.nextInt(100))
+                    .append(" + Math.round(item.price * 100) / 100;\n");
+        }
+        sb.append("  return 0;\n}");
+        return sb.toString();
+    }
+
+    /**
+     * Writes an object of roughly {@code bytes} bytes of nested irrelevant payload.
+     */
+    private static void writeNoise(JsonWriter json, Random random, long bytes) throws IOException {
+        json.beginObject();
+        long written = 0;
+        int i = 0;
+        while (written < bytes) {
+            json.name("Control" + i++).beginObject();
+            json.name("Width").value(random.nextInt(400));
+            json.name("Visible").value(random.nextBoolean());
+            json.name("Style").beginArray().value("bold").value("#" + Integer.toHexString(random.nextInt())).endArray();
+            json.endObject();
+            written += 72;
+        }
+        json.endObject();
+    }
+}
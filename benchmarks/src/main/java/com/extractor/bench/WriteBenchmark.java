@@ -0,0 +1,99 @@
+package com.extractor.bench;
+
+import com.extractor.model.FieldData;
+import com.extractor.model.WriteStats;
+import com.extractor.output.OutputManifest;
+import com.extractor.parser.JsonFormulaParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JsonFormulaParser#writeJsFiles} into a scratch directory.
+ * <p>
+ * The directory is created under {@code -Dbench.dir} (default: the system temp
+ * directory); point it at a tmpfs to take the disk out of the measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Param({"1000"})
+    public int fieldCount;
+
+    @Param({"500"})
+    public int formulaSize;
+
+    @Param({"4"})
+    public int fanOut;
+
+    @Param({"0.3"})
+    public double duplicateRatio;
+
+    @Param({"1", "8"})
+    public int parallelism;
+
+    private List<FieldData> fields;
+    private Path outDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fields = new JsonFormulaParser().parse(new SyntheticDefinition(fieldCount, formulaSize, fanOut, 0,
+                duplicateRatio).generate());
+        outDir = BenchFiles.createScratchDir("write");
+    }
+
+    /**
+     * Drops the manifest so the next {@link #writeAll} invocation rewrites every file.
+     */
+    @Setup(Level.Invocation)
+    public void forgetManifest() throws IOException {
+        Files.deleteIfExists(outDir.resolve(OutputManifest.FILE_NAME));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchFiles.deleteRecursively(outDir);
+    }
+
+    @Benchmark
+    public WriteStats writeAll() {
+        return new JsonFormulaParser().writeJsFiles(fields, outDir.toFile(), true, parallelism, BenchFiles.SILENT);
+    }
+
+    /**
+     * Incremental re-run where every field is unchanged (manifest hit for all files).
+     */
+    @Benchmark
+    public WriteStats writeUnchanged(UnchangedState state) {
+        return new JsonFormulaParser().writeJsFiles(fields, state.dir, true, parallelism, BenchFiles.SILENT);
+    }
+
+    /**
+     * Separate scratch directory whose manifest survives between invocations.
+     */
+    @State(Scope.Benchmark)
+    public static class UnchangedState {
+        File dir;
+
+        @Setup(Level.Trial)
+        public void setUp(WriteBenchmark bench) throws IOException {
+            dir = BenchFiles.createScratchDir("unchanged").toFile();
+            new JsonFormulaParser().writeJsFiles(bench.fields, dir, true, bench.parallelism, BenchFiles.SILENT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            BenchFiles.deleteRecursively(dir.toPath());
+        }
+    }
+}
@@ -1,23 +1,86 @@
 package com.extractor;
 
+import com.extractor.cli.BatchRunner;
 import com.extractor.ui.MainFrame;
 
 import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Entry point of the application.
- * Sets system look and feel and launches the main UI.
+ * <p>
+ * Without arguments sets system look and feel and launches the main UI.
+ * With arguments runs headless batch extraction (see {@link BatchRunner}),
+ * or compares two definitions with {@code diff old.json new.json}.
+ * {@code --training-run} runs the headless class-loading workload used to
+ * build the AppCDS archive of the packaged application (see {@link TrainingRun}).
  */
 public class Main {
+
+    /**
+     * System property that also prints the start-to-first-frame time to stderr.
+     */
+    private static final String STARTUP_TIMING_PROPERTY = "extractor.startupTiming";
+
+    /**
+     * System property that exits right after the first frame is shown, for repeated startup measurements.
+     */
+    private static final String EXIT_AFTER_FIRST_FRAME_PROPERTY = "extractor.exitAfterFirstFrame";
+
+    /**
+     * Time {@link #main} was entered, used when the process start time is unavailable.
+     */
+    private static final long ENTRY_NANOS = System.nanoTime();
+
     public static void main(String[] args) {
+        if (args.length == 1 && args[0].equals(TrainingRun.FLAG)) {
+            System.exit(TrainingRun.run());
+        }
+        if (args.length > 0) {
+            System.exit(BatchRunner.run(args));
+        }
+
         SwingUtilities.invokeLater(() -> {
-            try {
-                // Use native OS look and feel
-                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-            } catch (Exception ignored) {
-                // Fall back to default if failed
-            }
-            new MainFrame().setVisible(true);
+            applyLookAndFeel();
+            MainFrame frame = new MainFrame();
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    long millis = startupMillis();
+                    frame.logStartupTime(millis);
+                    if (Boolean.getBoolean(STARTUP_TIMING_PROPERTY)) {
+                        System.err.printf("Start to first frame: %d ms%n", millis);
+                    }
+                    if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME_PROPERTY)) {
+                        System.exit(0);
+                    }
+                }
+            });
+            frame.setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the native OS look and feel, keeping the default one if that fails.
+     */
+    static void applyLookAndFeel() {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception ignored) {
+            // Fall back to default if failed
+        }
+    }
+
+    /**
+     * @return Milliseconds since the process was started, or since {@link #main} was entered
+     * when the OS does not report the start time
+     */
+    private static long startupMillis() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElseGet(() -> (System.nanoTime() - ENTRY_NANOS) / 1_000_000);
+    }
+}
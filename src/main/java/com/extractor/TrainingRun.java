@@ -0,0 +1,121 @@
+package com.extractor;
+
+import com.extractor.output.OutputMode;
+import com.extractor.output.WriteOptions;
+import com.extractor.pipeline.ExtractionPipeline;
+import com.extractor.ui.MainFrame;
+import com.extractor.ui.ProgressCallback;
+import com.extractor.ui.ProgressPanel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Class-loading training run used to build the AppCDS archive of the packaged application.
+ * <p>
+ * Touches the same code a real session does — look and feel, main window,
+ * Gson parsing and every output mode — on the bundled {@value #SAMPLE} definition
+ * in a temporary directory, without showing any window. The packaging build starts
+ * it with {@code -XX:ArchiveClassesAtExit} from the application directory, so every
+ * class loaded here is archived against the shipped JAR and later mapped at launch
+ * instead of being loaded and verified again.
+ */
+final class TrainingRun {
+
+    /**
+     * Command line flag selecting the training run.
+     */
+    static final String FLAG = "--training-run";
+
+    /**
+     * Classpath resource holding the sample definition.
+     */
+    private static final String SAMPLE = "/training-sample.json";
+
+    private TrainingRun() {
+    }
+
+    /**
+     * Runs the training workload.
+     *
+     * @return Process exit code
+     */
+    static int run() {
+        long start = System.nanoTime();
+        try {
+            exerciseUi();
+            exerciseExtraction();
+        } catch (Exception e) {
+            System.err.println("Training run failed: " + e);
+            return 1;
+        }
+        System.out.printf("Training run finished in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+        return 0;
+    }
+
+    /**
+     * Builds the main window without showing it, or only the lighter components when no display is available.
+     */
+    private static void exerciseUi() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            Main.applyLookAndFeel();
+            if (GraphicsEnvironment.isHeadless()) {
+                new ProgressPanel();
+            } else {
+                MainFrame frame = new MainFrame();
+                frame.pack();
+                frame.dispose();
+            }
+        });
+    }
+
+    /**
+     * Extracts the sample definition once per output mode, plus once with shared formulas.
+     */
+    private static void exerciseExtraction() throws IOException {
+        Path dir = Files.createTempDirectory("extractor-training");
+        try {
+            Path input = dir.resolve("sample.json");
+            try (InputStream in = Objects.requireNonNull(TrainingRun.class.getResourceAsStream(SAMPLE), SAMPLE)) {
+                Files.copy(in, input);
+            }
+
+            ProgressCallback quiet = new ProgressCallback() {
+                @Override
+                public void update(String message, int percent) {
+                }
+
+                @Override
+                public void log(String message) {
+                }
+            };
+
+            for (OutputMode mode : OutputMode.values()) {
+                File outDir = dir.resolve(mode.name()).toFile();
+                ExtractionPipeline.Result result = new ExtractionPipeline()
+                        .run(input.toString(), outDir, new WriteOptions(mode, true, 4, false, false, true), quiet);
+                result.metrics().writeJson(dir.resolve(mode.name() + ".metrics.json"));
+            }
+            new ExtractionPipeline().run(input.toString(), dir.resolve("shared").toFile(),
+                    new WriteOptions(OutputMode.FOLDER, true, 4, true, false, false), quiet);
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.extractor.cache;
+
+import com.extractor.model.FieldData;
+import com.extractor.model.FieldStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk cache of parse results, so that re-running an unchanged input skips JSON parsing.
+ * <p>
+ * Entries are keyed by the input's size, modification time and CRC32C content
+ * checksum. An edited file never hits, even if its size and modification time
+ * were preserved; a copy or a touched but unchanged file misses too, as its
+ * modification time differs. Each entry is a compact binary file: a table of the distinct strings
+ * (formula bodies, sections, types and triggers repeat a lot) followed by the
+ * fields as table indices. Reading an entry touches its modification time, and
+ * after every store the least recently used entries are deleted until the cache
+ * fits its size cap.
+ * <p>
+ * The cache is best-effort: unreadable or outdated entries count as misses and are removed.
+ */
+public final class ParseCache {
+
+    /**
+     * Default size cap of the cache directory.
+     */
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+    /**
+     * Extension of cache entry files.
+     */
+    private static final String ENTRY_EXTENSION = ".fields";
+
+    /**
+     * Leading bytes of every entry, "JJSC".
+     */
+    private static final int MAGIC = 0x4A4A5343;
+
+    /**
+     * Entry format version; entries of other versions are ignored.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Bytes read per checksum step.
+     */
+    private static final int HASH_BUFFER_BYTES = 1024 * 1024;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Cached parse result.
+     *
+     * @param fields        Extracted fields, in input order
+     * @param fieldsScanned Number of field objects the parser saw
+     */
+    public record Entry(List<FieldData> fields, long fieldsScanned) {
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+
+    /**
+     * @param dir      Cache directory, created on first store
+     * @param maxBytes Size cap of all entries together
+     */
+    public ParseCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return Cache in the platform's per-user cache directory, capped at {@link #DEFAULT_MAX_BYTES}
+     */
+    public static ParseCache standard() {
+        return new ParseCache(userCacheDir().resolve("parse-cache"), DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Computes the cache key of an input file. Reads the whole file once through a direct
+     * buffer, checksummed with the hardware-accelerated CRC32C, which is far cheaper than
+     * parsing it. The file is not memory-mapped, so no mapping outlives this call and keeps
+     * the exporting application from replacing the file on Windows.
+     *
+     * @param input Input file
+     * @return Key naming the cache entry of the file's current content
+     * @throws IOException if the file cannot be read
+     */
+    public static String key(Path input) throws IOException {
+        long size = Files.size(input);
+        long mtime = Files.getLastModifiedTime(input).toMillis();
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return String.format(Locale.ROOT, "%016x-%016x-%08x", size, mtime, crc.getValue());
+    }
+
+    /**
+     * Loads a cached parse result and marks it as recently used.
+     *
+     * @param key Key from {@link #key(Path)}
+     * @return Cached result, or {@code null} on a miss
+     */
+    public Entry get(String key) {
+        Path file = dir.resolve(key + ENTRY_EXTENSION);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+                BUFFER_BYTES))) {
+            Entry entry = read(in);
+            if (entry == null) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a parse result, replacing any entry with the same key, then evicts
+     * least recently used entries above the size cap.
+     *
+     * @param key           Key from {@link #key(Path)}
+     * @param fields        Extracted fields, in input order
+     * @param fieldsScanned Number of field objects the parser saw
+     * @throws IOException if the entry cannot be written
+     */
+    public void put(String key, List<FieldData> fields, long fieldsScanned) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(key + ENTRY_EXTENSION);
+        Path tmp = Files.createTempFile(dir, key, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp),
+                    BUFFER_BYTES))) {
+                write(out, fields, fieldsScanned);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        evict();
+    }
+
+    /**
+     * Deletes least recently used entries until the cache fits {@code maxBytes}.
+     */
+    private void evict() throws IOException {
+        record Cached(Path file, long size, long lastUsed) {
+        }
+
+        List<Cached> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(ENTRY_EXTENSION)).toList()) {
+                try {
+                    entries.add(new Cached(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                } catch (NoSuchFileException e) {
+                    // Removed concurrently by another instance
+                }
+            }
+        }
+
+        long total = entries.stream().mapToLong(Cached::size).sum();
+        entries.sort(Comparator.comparingLong(Cached::lastUsed));
+        for (Cached entry : entries) {
+            if (total <= maxBytes) break;
+            Files.deleteIfExists(entry.file());
+            total -= entry.size();
+        }
+    }
+
+    /**
+     * Writes the string table followed by the fields as table indices.
+     */
+    private static void write(DataOutputStream out, List<FieldData> fields, long fieldsScanned) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] refs = new int[fields.stream().mapToInt(fd -> 6 + fd.participatingFields().length).sum()];
+        int r = 0;
+        for (FieldData fd : fields) {
+            refs[r++] = intern(fd.section(), ids, strings);
+            refs[r++] = intern(fd.fieldId(), ids, strings);
+            refs[r++] = intern(fd.label(), ids, strings);
+            refs[r++] = intern(fd.type(), ids, strings);
+            refs[r++] = intern(fd.trigger(), ids, strings);
+            refs[r++] = intern(fd.formula(), ids, strings);
+            for (String participating : fd.participatingFields()) {
+                refs[r++] = intern(participating, ids, strings);
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(fieldsScanned);
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(fields.size());
+        r = 0;
+        for (FieldData fd : fields) {
+            out.writeInt(fd.participatingFields().length);
+            for (int i = 0; i < 6 + fd.participatingFields().length; i++) {
+                out.writeInt(refs[r++]);
+            }
+        }
+    }
+
+    /**
+     * Reads an entry written by {@link #write}.
+     *
+     * @return Entry, or {@code null} if it has another format
+     */
+    private static Entry read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return null;
+        long fieldsScanned = in.readLong();
+
+        String[] strings = new String[in.readInt()];
+        byte[] buffer = new byte[BUFFER_BYTES];
+        for (int i = 0; i < strings.length; i++) {
+            int length = in.readInt();
+            if (length > buffer.length) buffer = new byte[length];
+            in.readFully(buffer, 0, length);
+            strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int count = in.readInt();
+        FieldStore fields = new FieldStore();
+        for (int f = 0; f < count; f++) {
+            String[] participating = new String[in.readInt()];
+            String section = strings[in.readInt()];
+            String fieldId = strings[in.readInt()];
+            String label = strings[in.readInt()];
+            String type = strings[in.readInt()];
+            String trigger = strings[in.readInt()];
+            String formula = strings[in.readInt()];
+            for (int i = 0; i < participating.length; i++) {
+                participating[i] = strings[in.readInt()];
+            }
+            fields.add(new FieldData(section, fieldId, label, type, trigger, formula, participating));
+        }
+        if (in.read() != -1) throw new EOFException("Trailing data in cache entry");
+        return new Entry(fields, fieldsScanned);
+    }
+
+    private static int intern(String s, Map<String, Integer> ids, List<String> strings) {
+        Integer id = ids.get(s);
+        if (id != null) return id;
+        ids.put(s, strings.size());
+        strings.add(s);
+        return strings.size() - 1;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Best effort; the entry is rewritten on the next store
+        }
+    }
+
+    /**
+     * Resolves the per-user cache directory of the application:
+     * {@code %LOCALAPPDATA%} on Windows, {@code ~/Library/Caches} on macOS
+     * and {@code $XDG_CACHE_HOME} (default {@code ~/.cache}) elsewhere.
+     */
+    private static Path userCacheDir() {
+        String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+        Path home = Paths.get(System.getProperty("user.home"));
+        String localAppData = System.getenv("LOCALAPPDATA");
+        String xdg = System.getenv("XDG_CACHE_HOME");
+
+        Path base;
+        if (os.contains("win") && localAppData != null) {
+            base = Paths.get(localAppData);
+        } else if (os.contains("mac")) {
+            base = home.resolve("Library").resolve("Caches");
+        } else if (xdg != null && !xdg.isBlank()) {
+            base = Paths.get(xdg);
+        } else {
+            base = home.resolve(".cache");
+        }
+        return base.resolve("JsonToJsExtractor");
+    }
+}
@@ -0,0 +1,181 @@
+package com.extractor.cli;
+
+import com.extractor.config.UserPreferences;
+import com.extractor.output.OutputMode;
+import com.extractor.output.WriteOptions;
+import com.extractor.parser.FieldFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line options of the headless batch mode.
+ * <p>
+ * Mirrors the options available in the GUI:
+ * <ul>
+ *     <li>{@code --no-comments} — "Add comments to generated JS files" unchecked</li>
+ *     <li>{@code --open} — "Auto-open results folder" checked</li>
+ *     <li>{@code --parallel-writes} — "Parallel writes" spinner</li>
+ *     <li>{@code --zip} / {@code --zip-store} / {@code --bundle} — "Output" selection</li>
+ *     <li>{@code --share-formulas} — "Share identical formulas" checked</li>
+ *     <li>{@code --metrics} — "Write metrics.json" checked</li>
+ *     <li>{@code --parallel-entries} — "Parallel ZIP entries" checked</li>
+ *     <li>{@code --validate} — "Validate JS syntax" checked</li>
+ *     <li>{@code --filter <terms>} — the "Filter" field; repeated options add up</li>
+ *     <li>{@code --cache} — parse result cache, always used by the GUI</li>
+ * </ul>
+ *
+ * @param inputs         Input files, directories or glob patterns
+ * @param outputRoot     Root directory receiving one {@code <name>_extracted} folder per input
+ * @param addComments    Flag to determine if comments should be added to generated files
+ * @param openFolder     Flag to open the output root when finished
+ * @param outputMode     Output layout per input
+ * @param shareFormulas  Flag to write formula bodies used by several fields once
+ * @param parallelWrites Maximum number of concurrent file writes per input
+ * @param jobs           Number of input files processed concurrently
+ * @param verbose        Flag to print every generated file
+ * @param writeMetrics   Flag to write a metrics.json report per input
+ * @param parallelEntries Flag to extract the JSON entries of ZIP inputs concurrently
+ * @param validate       Flag to syntax-check every formula and write a validation report
+ * @param filter         Fields to extract
+ * @param useCache       Flag to reuse and store parse results in the user cache directory
+ */
+public record BatchOptions(
+        List<String> inputs,
+        String outputRoot,
+        boolean addComments,
+        boolean openFolder,
+        OutputMode outputMode,
+        boolean shareFormulas,
+        int parallelWrites,
+        int jobs,
+        boolean verbose,
+        boolean writeMetrics,
+        boolean parallelEntries,
+        boolean validate,
+        FieldFilter filter,
+        boolean useCache
+) {
+
+    /**
+     * Usage text printed for {@code --help} and on invalid arguments.
+     */
+    public static final String USAGE = """
+            Usage: java -jar JsonToJsExtractor.jar [options] <input>...
+                   java -jar JsonToJsExtractor.jar diff [options] <old.json> <new.json>
+
+            Inputs may be JSON files, directories (searched recursively for *.json,
+            *.ndjson and *.jsonl, plain or .gz) or glob patterns such as "exports/**/*.json".
+            Inputs holding several definitions (top-level array or NDJSON) and
+            *.zip archives of JSON files are written one subfolder per definition or entry.
+            *.gz and *.zip inputs are read without unpacking them to disk.
+
+            Options:
+              -o, --out <dir>              Output root; each input goes to <dir>/<name>_extracted (required)
+                  --no-comments            Do not add header comments to generated JS files
+                  --open                   Open the output root when finished
+                  --zip                    Write one <name>_extracted.zip archive per input
+                  --zip-store              Like --zip, but without compression (fastest)
+                  --bundle                 Write one Bundle.js with a Bundle.idx byte-offset index per input
+                  --share-formulas         Write formula bodies used by several fields once to _shared/
+              -p, --parallel-writes <n>    Concurrent file writes per input (default: %d)
+              -j, --jobs <n>               Input files processed concurrently (default: CPU count)
+                  --metrics                Write per-stage timings to metrics.json for each input
+                  --parallel-entries       Extract the JSON entries of *.zip inputs concurrently
+                  --validate               Syntax-check every formula, write Validation.txt
+                  --filter <terms>         Extract only matching fields, e.g. "section:line* -id:TSATest*"
+                                           (terms [-]section|id|label|type|trigger:<glob>, - excludes)
+                  --cache                  Skip parsing inputs unchanged since a cached run
+              -v, --verbose                Print every generated file and per-stage timings
+              -h, --help                   Show this help
+            """.formatted(UserPreferences.DEFAULT_WRITE_PARALLELISM);
+
+    /**
+     * @return Write options derived from these command-line options
+     */
+    public WriteOptions writeOptions() {
+        return new WriteOptions(outputMode, addComments, parallelWrites, shareFormulas, parallelEntries, validate);
+    }
+
+    /**
+     * Parses command-line arguments.
+     *
+     * @param args Raw arguments
+     * @return Parsed options, or {@code null} if help was requested
+     * @throws IllegalArgumentException if arguments are invalid
+     */
+    public static BatchOptions parse(String[] args) {
+        List<String> inputs = new ArrayList<>();
+        String outputRoot = null;
+        boolean addComments = true;
+        boolean openFolder = false;
+        OutputMode outputMode = OutputMode.FOLDER;
+        boolean shareFormulas = false;
+        int parallelWrites = UserPreferences.DEFAULT_WRITE_PARALLELISM;
+        int jobs = Runtime.getRuntime().availableProcessors();
+        boolean verbose = false;
+        boolean writeMetrics = false;
+        boolean parallelEntries = false;
+        boolean validate = false;
+        List<String> filterTerms = new ArrayList<>();
+        boolean useCache = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h", "--help" -> {
+                    return null;
+                }
+                case "-o", "--out" -> outputRoot = value(args, ++i, arg);
+                case "--no-comments" -> addComments = false;
+                case "--open" -> openFolder = true;
+                case "--zip" -> outputMode = OutputMode.ZIP;
+                case "--zip-store" -> outputMode = OutputMode.ZIP_STORED;
+                case "--bundle" -> outputMode = OutputMode.BUNDLE;
+                case "--share-formulas" -> shareFormulas = true;
+                case "-p", "--parallel-writes" -> parallelWrites = positiveInt(value(args, ++i, arg), arg);
+                case "-j", "--jobs" -> jobs = positiveInt(value(args, ++i, arg), arg);
+                case "-v", "--verbose" -> verbose = true;
+                case "--metrics" -> writeMetrics = true;
+                case "--parallel-entries" -> parallelEntries = true;
+                case "--validate" -> validate = true;
+                case "--filter" -> filterTerms.add(value(args, ++i, arg));
+                case "--cache" -> useCache = true;
+                default -> {
+                    if (arg.startsWith("-") && arg.length() > 1) {
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                    inputs.add(arg);
+                }
+            }
+        }
+
+        if (outputRoot == null) throw new IllegalArgumentException("Missing required option --out");
+        if (inputs.isEmpty()) throw new IllegalArgumentException("No input files given");
+
+        return new BatchOptions(List.copyOf(inputs), outputRoot, addComments, openFolder, outputMode, shareFormulas,
+                parallelWrites, jobs, verbose, writeMetrics, parallelEntries, validate,
+                FieldFilter.parse(String.join(" ", filterTerms)), useCache);
+    }
+
+    /**
+     * Returns the value following an option.
+     */
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+        return args[index];
+    }
+
+    /**
+     * Parses a positive integer option value.
+     */
+    private static int positiveInt(String value, String option) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n < 1) throw new NumberFormatException();
+            return n;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+        }
+    }
+}
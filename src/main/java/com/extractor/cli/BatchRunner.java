@@ -0,0 +1,359 @@
+package com.extractor.cli;
+
+import com.extractor.cache.ParseCache;
+import com.extractor.metrics.RunMetrics;
+import com.extractor.model.WriteStats;
+import com.extractor.pipeline.ExtractionPipeline;
+import com.extractor.ui.ProgressCallback;
+import com.extractor.util.FileUtils;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Headless batch extraction.
+ * <p>
+ * Runs the same read → parse → write pipeline as the GUI over many input
+ * files, processing several inputs at once on a work-stealing pool, and
+ * prints a throughput summary when done.
+ */
+public final class BatchRunner {
+
+    /**
+     * Exit code for a run without failures.
+     */
+    public static final int EXIT_OK = 0;
+
+    /**
+     * Exit code when at least one input or file failed.
+     */
+    public static final int EXIT_FAILED = 1;
+
+    /**
+     * Exit code for invalid command-line arguments.
+     */
+    public static final int EXIT_USAGE = 2;
+
+    private final BatchOptions options;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * Parse result cache shared by all inputs, or {@code null} without {@code --cache}
+     */
+    private final ParseCache cache;
+
+    /**
+     * Result of processing one input file.
+     *
+     * @param fields           Number of extracted fields
+     * @param bytes            Input size in bytes
+     * @param failed           Whether reading, parsing or writing any file failed
+     * @param distinctFormulas Number of distinct formula bodies
+     */
+    private record InputResult(int fields, long bytes, boolean failed, int distinctFormulas) {
+    }
+
+    /**
+     * Creates a runner for the given options.
+     *
+     * @param options Parsed options
+     * @param out     Stream for regular output
+     * @param err     Stream for failures
+     */
+    public BatchRunner(BatchOptions options, PrintStream out, PrintStream err) {
+        this.options = options;
+        this.out = out;
+        this.err = err;
+        this.cache = options.useCache() ? ParseCache.standard() : null;
+    }
+
+    /**
+     * Parses arguments and runs the batch, or the {@code diff} sub-command.
+     *
+     * @param args Command-line arguments
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        if (args.length > 0 && args[0].equals(DiffCommand.NAME)) {
+            return DiffCommand.run(Arrays.copyOfRange(args, 1, args.length));
+        }
+
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.err.println();
+            System.err.print(BatchOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (options == null) {
+            System.out.print(BatchOptions.USAGE);
+            return EXIT_OK;
+        }
+
+        return new BatchRunner(options, System.out, System.err).run();
+    }
+
+    /**
+     * Resolves inputs and processes them concurrently.
+     *
+     * @return Process exit code
+     */
+    public int run() {
+        List<Path> inputs;
+        try {
+            inputs = resolveInputs(options.inputs());
+        } catch (IOException | IllegalArgumentException e) {
+            err.println("ERROR: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        if (inputs.isEmpty()) {
+            err.println("ERROR: No JSON files matched the given inputs");
+            return EXIT_USAGE;
+        }
+
+        File outputRoot = new File(options.outputRoot());
+        FileUtils.ensureDir(outputRoot);
+
+        Map<Path, File> targets = assignOutputDirs(inputs, outputRoot);
+
+        long start = System.nanoTime();
+        List<Future<InputResult>> futures = new ArrayList<>(inputs.size());
+
+        try (ExecutorService pool = Executors.newWorkStealingPool(options.jobs())) {
+            for (Path input : inputs) {
+                futures.add(pool.submit(() -> processSafely(input, targets.get(input))));
+            }
+        }
+
+        int ok = 0;
+        int failed = 0;
+        long fields = 0;
+        long bytes = 0;
+        long distinctFormulas = 0;
+
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                InputResult result = futures.get(i).get();
+                fields += result.fields();
+                bytes += result.bytes();
+                distinctFormulas += result.distinctFormulas();
+                if (result.failed()) failed++;
+                else ok++;
+            } catch (ExecutionException e) {
+                failed++;
+                err.println("FATAL: " + inputs.get(i) + " → " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed++;
+            }
+        }
+
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+        double megabytes = bytes / (1024.0 * 1024.0);
+
+        out.println();
+        out.printf(Locale.ROOT, "Files:  %d processed, %d failed%n", ok, failed);
+        out.printf(Locale.ROOT, "Fields: %d extracted (%.0f fields/s)%n", fields, fields / seconds);
+        out.printf(Locale.ROOT, "Dedup:  %d distinct formula bodies (dedup ratio %.1f%%)%n",
+                distinctFormulas, fields == 0 ? 0.0 : (1.0 - (double) distinctFormulas / fields) * 100);
+        out.printf(Locale.ROOT, "Input:  %.2f MB in %.2f s (%.2f MB/s)%n", megabytes, seconds, megabytes / seconds);
+        out.println("Output: " + outputRoot.getAbsolutePath());
+
+        if (options.openFolder() && Desktop.isDesktopSupported()) {
+            try {
+                Desktop.getDesktop().open(outputRoot);
+            } catch (IOException | UnsupportedOperationException e) {
+                err.println("Could not open output folder: " + e.getMessage());
+            }
+        }
+
+        return failed == 0 ? EXIT_OK : EXIT_FAILED;
+    }
+
+    /**
+     * Runs {@link #process} and reports a fatal error for the input instead of propagating it.
+     *
+     * @param input  Input JSON file
+     * @param outDir Output directory for this input
+     * @return Result counters
+     */
+    private InputResult processSafely(Path input, File outDir) {
+        try {
+            return process(input, outDir);
+        } catch (IOException | RuntimeException e) {
+            err.println("FATAL: " + input + " → " + e.getMessage());
+            return new InputResult(0, 0, true, 0);
+        }
+    }
+
+    /**
+     * Runs the read → parse → write pipeline for a single input.
+     *
+     * @param input  Input JSON file
+     * @param outDir Output directory for this input
+     * @return Result counters
+     * @throws IOException if the input cannot be read or parsed
+     */
+    private InputResult process(Path input, File outDir) throws IOException {
+        String name = input.getFileName().toString();
+
+        ProgressCallback callback = new ProgressCallback() {
+            @Override
+            public void update(String message, int percent) {
+                // Per-file progress is not shown in batch mode
+            }
+
+            @Override
+            public void log(String message) {
+                if (options.verbose()) out.println("[" + name + "] " + message);
+            }
+
+            @Override
+            public void error(String message) {
+                err.println("[" + name + "] " + message);
+            }
+        };
+
+        ExtractionPipeline.Result result = new ExtractionPipeline(cache, false, options.filter()).run(input.toString(), outDir,
+                options.writeOptions(), callback);
+
+        WriteStats stats = result.stats();
+        File target = options.outputMode().target(outDir);
+
+        out.println("[" + name + "] " + result.fields() + " fields → " + target.getName()
+                + " (" + stats.summary() + ")");
+        if (options.verbose()) {
+            out.println("[" + name + "] " + result.formulaPool().summary());
+            result.metrics().summary().lines().forEach(line -> out.println("[" + name + "] " + line));
+        }
+
+        if (options.writeMetrics()) {
+            File metricsFile = RunMetrics.fileFor(target, options.outputMode().isArchive());
+            try {
+                result.metrics().writeJson(metricsFile.toPath());
+            } catch (IOException e) {
+                err.println("[" + name + "] Failed: " + metricsFile.getName() + " → " + e.getMessage());
+                return new InputResult(result.fields(), Files.size(input), true, result.formulaPool().distinct());
+            }
+        }
+
+        return new InputResult(result.fields(), Files.size(input), stats.failed() > 0,
+                result.formulaPool().distinct());
+    }
+
+    /**
+     * Expands files, directories and glob patterns into a list of JSON files.
+     *
+     * @param specs Raw input arguments
+     * @return Distinct input files in argument order
+     * @throws IOException if a directory cannot be listed
+     */
+    static List<Path> resolveInputs(List<String> specs) throws IOException {
+        Set<Path> result = new LinkedHashSet<>();
+
+        for (String spec : specs) {
+            Path path = Paths.get(spec);
+
+            if (Files.isRegularFile(path)) {
+                result.add(path.toAbsolutePath().normalize());
+            } else if (Files.isDirectory(path)) {
+                result.addAll(walkJson(path, null));
+            } else if (isGlob(spec)) {
+                int firstGlobChar = indexOfGlobChar(spec);
+                int baseEnd = Math.max(spec.lastIndexOf('/', firstGlobChar), spec.lastIndexOf('\\', firstGlobChar));
+                Path base = baseEnd < 0 ? Paths.get(".") : Paths.get(spec.substring(0, baseEnd + 1));
+                String pattern = spec.substring(baseEnd + 1);
+
+                if (Files.isDirectory(base)) {
+                    result.addAll(walkJson(base, FileSystems.getDefault().getPathMatcher("glob:" + pattern)));
+                }
+            } else {
+                throw new IllegalArgumentException("Input not found: " + spec);
+            }
+        }
+
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Lists regular files below a directory, either all JSON inputs (*.json, *.ndjson, *.jsonl,
+     * plain or gzip-compressed) or those matching a glob. ZIP archives are only taken when named
+     * explicitly or matched by a glob, so earlier archive output is not picked up as input.
+     *
+     * @param base    Directory to walk
+     * @param matcher Glob matcher applied to paths relative to base, or {@code null} for JSON inputs
+     */
+    private static List<Path> walkJson(Path base, PathMatcher matcher) throws IOException {
+        try (Stream<Path> stream = Files.walk(base)) {
+            return stream
+                    .filter(Files::isRegularFile)
+                    .filter(p -> matcher == null
+                            ? isJsonInput(p.getFileName().toString())
+                            : matcher.matches(base.relativize(p)))
+                    .map(p -> p.toAbsolutePath().normalize())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean isJsonInput(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (FileUtils.isGzip(name)) name = name.substring(0, name.length() - FileUtils.GZIP_EXTENSION.length());
+        return name.endsWith(".json") || ExtractionPipeline.NDJSON_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    private static boolean isGlob(String spec) {
+        return indexOfGlobChar(spec) >= 0;
+    }
+
+    private static int indexOfGlobChar(String spec) {
+        for (int i = 0; i < spec.length(); i++) {
+            char c = spec.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Assigns each input its own {@code <name>_extracted} folder,
+     * adding a numeric suffix when two inputs share a file name.
+     */
+    private static Map<Path, File> assignOutputDirs(List<Path> inputs, File outputRoot) {
+        Map<Path, File> targets = new HashMap<>();
+        Map<String, Integer> used = new HashMap<>();
+
+        for (Path input : inputs) {
+            String name = input.getFileName().toString().replaceFirst(ExtractionPipeline.INPUT_EXTENSION_REGEX, "");
+            int n = used.merge(name.toLowerCase(Locale.ROOT), 1, Integer::sum);
+            String dirName = n == 1 ? name + "_extracted" : name + "_" + n + "_extracted";
+            targets.put(input, new File(outputRoot, dirName));
+        }
+
+        return targets;
+    }
+}
@@ -0,0 +1,255 @@
+package com.extractor.cli;
+
+import com.extractor.diff.DefinitionDiff;
+import com.extractor.diff.DiffResult;
+import com.extractor.diff.FieldChange;
+import com.extractor.model.FieldData;
+import com.extractor.output.JsRenderer;
+import com.extractor.parser.JsonFormulaParser;
+import com.extractor.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless comparison of two versions of a definition.
+ * <p>
+ * Invoked as {@code diff <old.json> <new.json>}: both files are parsed
+ * concurrently, compared with {@link DefinitionDiff}, and the added, removed
+ * and modified fields are printed. With {@code --out} the affected formulas
+ * are also written as .js files into {@code Added/}, {@code Removed/} and
+ * {@code Modified/} (new version) together with a {@code changes.txt} report.
+ */
+public final class DiffCommand {
+
+    /**
+     * Name of the sub-command on the command line.
+     */
+    public static final String NAME = "diff";
+
+    /**
+     * Exit code when both definitions contain the same fields.
+     */
+    public static final int EXIT_SAME = 0;
+
+    /**
+     * Exit code when the definitions differ.
+     */
+    public static final int EXIT_DIFFERENT = 1;
+
+    /**
+     * Exit code for invalid arguments or unreadable inputs.
+     */
+    public static final int EXIT_ERROR = 2;
+
+    /**
+     * Name of the report written next to the changed formulas.
+     */
+    public static final String REPORT_FILE = "changes.txt";
+
+    /**
+     * Usage text printed for {@code diff --help} and on invalid arguments.
+     */
+    public static final String USAGE = """
+            Usage: java -jar JsonToJsExtractor.jar diff [options] <old.json> <new.json>
+
+            Compares calculated fields by section and FieldID and lists added, removed
+            and modified formulas, including trigger and participating field changes.
+
+            Options:
+              -o, --out <dir>              Also write changed formulas to <dir>/Added, Removed and Modified
+                  --no-comments            Do not add header comments to written JS files
+              -h, --help                   Show this help
+
+            Exit status: 0 if no fields changed, 1 if they differ, 2 on errors.
+            """;
+
+    private final Path oldFile;
+    private final Path newFile;
+    private final File outDir;
+    private final boolean addComments;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private DiffCommand(Path oldFile, Path newFile, File outDir, boolean addComments, PrintStream out, PrintStream err) {
+        this.oldFile = oldFile;
+        this.newFile = newFile;
+        this.outDir = outDir;
+        this.addComments = addComments;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Parses sub-command arguments and runs the comparison.
+     *
+     * @param args Arguments following {@code diff}
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        List<String> files = new ArrayList<>();
+        String outDir = null;
+        boolean addComments = true;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h", "--help" -> {
+                    System.out.print(USAGE);
+                    return EXIT_SAME;
+                }
+                case "-o", "--out" -> {
+                    if (++i >= args.length) return usageError("Missing value for " + arg);
+                    outDir = args[i];
+                }
+                case "--no-comments" -> addComments = false;
+                default -> {
+                    if (arg.startsWith("-") && arg.length() > 1) return usageError("Unknown option: " + arg);
+                    files.add(arg);
+                }
+            }
+        }
+
+        if (files.size() != 2) return usageError("Expected exactly two JSON files");
+
+        for (String file : files) {
+            if (!Files.isRegularFile(Paths.get(file))) return usageError("Input not found: " + file);
+        }
+
+        return new DiffCommand(Paths.get(files.get(0)), Paths.get(files.get(1)),
+                outDir == null ? null : new File(outDir), addComments, System.out, System.err).run();
+    }
+
+    private static int usageError(String message) {
+        System.err.println("ERROR: " + message);
+        System.err.println();
+        System.err.print(USAGE);
+        return EXIT_ERROR;
+    }
+
+    /**
+     * Parses both files, compares them and reports the changes.
+     *
+     * @return Process exit code
+     */
+    public int run() {
+        long start = System.nanoTime();
+        DiffResult result;
+
+        try {
+            CompletableFuture<List<FieldData>> before = CompletableFuture.supplyAsync(() -> parse(oldFile));
+            CompletableFuture<List<FieldData>> after = CompletableFuture.supplyAsync(() -> parse(newFile));
+            result = DefinitionDiff.compare(before.join(), after.join());
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            err.println("FATAL: " + cause.getMessage());
+            return EXIT_ERROR;
+        }
+
+        List<String> report = report(result);
+        report.forEach(out::println);
+
+        if (outDir != null) {
+            try {
+                write(result, report);
+            } catch (IOException e) {
+                err.println("FATAL: " + e.getMessage());
+                return EXIT_ERROR;
+            }
+        }
+
+        out.println();
+        out.println(result.summary());
+        out.printf("Compared in %d ms%n", (System.nanoTime() - start) / 1_000_000);
+        if (outDir != null) out.println("Output: " + outDir.getAbsolutePath());
+
+        return result.isEmpty() ? EXIT_SAME : EXIT_DIFFERENT;
+    }
+
+    /**
+     * Reads and parses one definition.
+     */
+    private static List<FieldData> parse(Path file) {
+        try (Reader reader = FileUtils.openReader(file.toString())) {
+            return new JsonFormulaParser().parse(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(file + " → " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(file + " → " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Formats one line per change: {@code +} added, {@code -} removed, {@code ~} modified.
+     */
+    private static List<String> report(DiffResult result) {
+        List<String> lines = new ArrayList<>(result.changes().size());
+
+        for (FieldChange change : result.changes()) {
+            String label = change.current().label();
+            lines.add(switch (change.kind()) {
+                case ADDED -> "+ " + change.key() + " (" + label + ")";
+                case REMOVED -> "- " + change.key() + " (" + label + ")";
+                case MODIFIED -> "~ " + change.key() + " (" + label + "): "
+                        + change.aspects().stream().map(Object::toString).collect(Collectors.joining(", "));
+            });
+        }
+
+        return lines;
+    }
+
+    /**
+     * Writes the changed formulas and the report below the output directory.
+     * Previous contents of the Added, Removed and Modified folders are replaced.
+     */
+    private void write(DiffResult result, List<String> report) throws IOException {
+        FileUtils.ensureDir(outDir);
+
+        for (FieldChange.Kind kind : FieldChange.Kind.values()) {
+            deleteTree(new File(outDir, kind.toString()).toPath());
+        }
+
+        for (FieldChange change : result.changes()) {
+            FieldData fd = change.current();
+            File sectionDir = new File(new File(outDir, change.kind().toString()), fd.section());
+            FileUtils.ensureDir(sectionDir);
+
+            Files.writeString(new File(sectionDir, JsRenderer.fileName(fd)).toPath(),
+                    JsRenderer.render(fd, addComments), StandardCharsets.UTF_8);
+        }
+
+        List<String> lines = new ArrayList<>(report.size() + 4);
+        lines.add("# " + oldFile.getFileName() + " → " + newFile.getFileName());
+        lines.addAll(report);
+        lines.add("");
+        lines.add(result.summary());
+        Files.write(new File(outDir, REPORT_FILE).toPath(), lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deletes a directory tree if it exists.
+     */
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+
+        try (Stream<Path> stream = Files.walk(dir)) {
+            for (Path p : stream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.extractor.config;
 
+import com.extractor.output.OutputMode;
+
 import java.util.prefs.Preferences;
 
 /**
@@ -11,6 +13,14 @@ import java.util.prefs.Preferences;
  *     <li>Last selected input JSON file</li>
  *     <li>Last selected output directory</li>
  *     <li>User preference for adding comments to generated JS files</li>
+ *     <li>Number of JS files written concurrently</li>
+ *     <li>Maximum number of log lines kept in memory</li>
+ *     <li>Output mode (folder, ZIP archive or bundle)</li>
+ *     <li>Whether identical formulas are written once to a shared folder</li>
+ *     <li>Whether a metrics report is written with each run</li>
+ *     <li>Whether ZIP input entries are extracted concurrently</li>
+ *     <li>Whether formulas are syntax-checked</li>
+ *     <li>Last field filter</li>
  * </ul>
  */
 public final class UserPreferences {
@@ -28,6 +38,24 @@ public final class UserPreferences {
     private static final String KEY_LAST_OUTPUT = "lastOutputDir";
     private static final String KEY_ADD_COMMENTS = "addComments";
     private static final String KEY_OPEN_FOLDER = "openFolder";
+    private static final String KEY_WRITE_PARALLELISM = "writeParallelism";
+    private static final String KEY_LOG_LINE_CAP = "logLineCap";
+    private static final String KEY_OUTPUT_MODE = "outputMode";
+    private static final String KEY_SHARE_FORMULAS = "shareFormulas";
+    private static final String KEY_WRITE_METRICS = "writeMetrics";
+    private static final String KEY_PARALLEL_ENTRIES = "parallelEntries";
+    private static final String KEY_VALIDATE = "validateFormulas";
+    private static final String KEY_FIELD_FILTER = "fieldFilter";
+
+    /**
+     * Default number of concurrent JS file writes.
+     */
+    public static final int DEFAULT_WRITE_PARALLELISM = 8;
+
+    /**
+     * Default number of log lines kept in memory by the log view.
+     */
+    public static final int DEFAULT_LOG_LINE_CAP = 10_000;
 
     /**
      * Prevent instantiation.
@@ -98,4 +126,136 @@ public final class UserPreferences {
     public static void setOpenFolderEnabled(boolean value) {
         PREFS.putBoolean(KEY_OPEN_FOLDER, value);
     }
+
+    /**
+     * @return maximum number of JS files written concurrently (1 = sequential)
+     */
+    public static int getWriteParallelism() {
+        return Math.max(1, PREFS.getInt(KEY_WRITE_PARALLELISM, DEFAULT_WRITE_PARALLELISM));
+    }
+
+    /**
+     * Stores the maximum number of JS files written concurrently.
+     *
+     * @param value parallelism limit (values below 1 mean sequential)
+     */
+    public static void setWriteParallelism(int value) {
+        PREFS.putInt(KEY_WRITE_PARALLELISM, Math.max(1, value));
+    }
+
+    /**
+     * @return maximum number of log lines kept in memory (older lines are spilled to disk)
+     */
+    public static int getLogLineCap() {
+        return Math.max(100, PREFS.getInt(KEY_LOG_LINE_CAP, DEFAULT_LOG_LINE_CAP));
+    }
+
+    /**
+     * Stores the maximum number of log lines kept in memory.
+     *
+     * @param value line cap (values below 100 are raised to 100)
+     */
+    public static void setLogLineCap(int value) {
+        PREFS.putInt(KEY_LOG_LINE_CAP, Math.max(100, value));
+    }
+
+    /**
+     * @return selected output mode, {@link OutputMode#FOLDER} if unset or unknown
+     */
+    public static OutputMode getOutputMode() {
+        try {
+            return OutputMode.valueOf(PREFS.get(KEY_OUTPUT_MODE, OutputMode.FOLDER.name()));
+        } catch (IllegalArgumentException e) {
+            return OutputMode.FOLDER;
+        }
+    }
+
+    /**
+     * Stores the selected output mode.
+     *
+     * @param value output mode
+     */
+    public static void setOutputMode(OutputMode value) {
+        PREFS.put(KEY_OUTPUT_MODE, value.name());
+    }
+
+    /**
+     * @return {@code true} if formula bodies used by several fields should be written once
+     */
+    public static boolean isShareFormulasEnabled() {
+        return PREFS.getBoolean(KEY_SHARE_FORMULAS, false);
+    }
+
+    /**
+     * Enables or disables writing shared formula bodies once.
+     *
+     * @param value flag value
+     */
+    public static void setShareFormulasEnabled(boolean value) {
+        PREFS.putBoolean(KEY_SHARE_FORMULAS, value);
+    }
+
+    /**
+     * @return {@code true} if a metrics.json report should be written with each run
+     */
+    public static boolean isWriteMetricsEnabled() {
+        return PREFS.getBoolean(KEY_WRITE_METRICS, false);
+    }
+
+    /**
+     * Enables or disables writing the metrics.json report.
+     *
+     * @param value flag value
+     */
+    public static void setWriteMetricsEnabled(boolean value) {
+        PREFS.putBoolean(KEY_WRITE_METRICS, value);
+    }
+
+    /**
+     * @return {@code true} if the JSON entries of a ZIP input should be extracted concurrently
+     */
+    public static boolean isParallelEntriesEnabled() {
+        return PREFS.getBoolean(KEY_PARALLEL_ENTRIES, false);
+    }
+
+    /**
+     * Enables or disables concurrent extraction of ZIP input entries.
+     *
+     * @param value flag value
+     */
+    public static void setParallelEntriesEnabled(boolean value) {
+        PREFS.putBoolean(KEY_PARALLEL_ENTRIES, value);
+    }
+
+    /**
+     * @return {@code true} if every formula should be syntax-checked during extraction
+     */
+    public static boolean isValidateEnabled() {
+        return PREFS.getBoolean(KEY_VALIDATE, false);
+    }
+
+    /**
+     * Enables or disables the syntax check of extracted formulas.
+     *
+     * @param value flag value
+     */
+    public static void setValidateEnabled(boolean value) {
+        PREFS.putBoolean(KEY_VALIDATE, value);
+    }
+
+    /**
+     * @return last used field filter terms, empty to extract every field
+     */
+    public static String getFieldFilter() {
+        return PREFS.get(KEY_FIELD_FILTER, "");
+    }
+
+    /**
+     * Stores the field filter terms.
+     *
+     * @param value filter terms, see {@link com.extractor.parser.FieldFilter}
+     */
+    public static void setFieldFilter(String value) {
+        PREFS.put(KEY_FIELD_FILTER, value);
+    }
 }
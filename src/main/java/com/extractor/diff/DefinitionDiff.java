@@ -0,0 +1,125 @@
+package com.extractor.diff;
+
+import com.extractor.model.FieldData;
+import com.extractor.output.OutputManifest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the calculated fields of two versions of a definition.
+ * <p>
+ * Fields are matched by section and FieldID (the same key the output
+ * manifest uses). Each field is reduced to a content hash over everything
+ * that ends up in its generated file — label, type, trigger, participating
+ * fields and formula — and hashing runs in parallel, so comparing two large
+ * definitions is a linear pass over both. Only fields whose hashes differ
+ * are inspected property by property.
+ * <p>
+ * When a key occurs more than once in one version, the last occurrence wins,
+ * matching how the writers treat duplicates.
+ */
+public final class DefinitionDiff {
+
+    /**
+     * Field together with its content hash.
+     */
+    private record Hashed(FieldData field, String hash) {
+    }
+
+    /**
+     * Utility class — no instances allowed.
+     */
+    private DefinitionDiff() {
+    }
+
+    /**
+     * Compares two versions of a definition.
+     *
+     * @param before Fields of the old version
+     * @param after  Fields of the new version
+     * @return Changes ordered by kind and key
+     */
+    public static DiffResult compare(List<FieldData> before, List<FieldData> after) {
+        Map<String, Hashed> oldFields = index(before);
+        Map<String, Hashed> newFields = index(after);
+
+        List<FieldChange> changes = new ArrayList<>();
+        int unchanged = 0;
+
+        for (Map.Entry<String, Hashed> e : oldFields.entrySet()) {
+            Hashed old = e.getValue();
+            Hashed now = newFields.get(e.getKey());
+
+            if (now == null) {
+                changes.add(new FieldChange(FieldChange.Kind.REMOVED, e.getKey(), old.field(), null, Set.of()));
+            } else if (!old.hash().equals(now.hash())) {
+                changes.add(new FieldChange(FieldChange.Kind.MODIFIED, e.getKey(), old.field(), now.field(),
+                        aspects(old.field(), now.field())));
+            } else {
+                unchanged++;
+            }
+        }
+
+        for (Map.Entry<String, Hashed> e : newFields.entrySet()) {
+            if (!oldFields.containsKey(e.getKey())) {
+                changes.add(new FieldChange(FieldChange.Kind.ADDED, e.getKey(), null, e.getValue().field(), Set.of()));
+            }
+        }
+
+        changes.sort(Comparator.comparing(FieldChange::kind).thenComparing(FieldChange::key));
+        return new DiffResult(List.copyOf(changes), unchanged);
+    }
+
+    /**
+     * Keys and hashes fields in parallel; later duplicates replace earlier ones.
+     */
+    private static Map<String, Hashed> index(List<FieldData> fields) {
+        return fields.parallelStream()
+                .collect(Collectors.toMap(
+                        OutputManifest::key,
+                        fd -> new Hashed(fd, OutputManifest.hash(fingerprint(fd))),
+                        (first, second) -> second,
+                        HashMap::new
+                ));
+    }
+
+    /**
+     * Builds the hashed representation of a field; NUL separates the properties.
+     */
+    private static String fingerprint(FieldData fd) {
+        StringBuilder sb = new StringBuilder(fd.formula().length() + 128);
+        sb.append(fd.label()).append('\0')
+                .append(fd.type()).append('\0')
+                .append(fd.trigger()).append('\0');
+        for (String participatingField : fd.participatingFields()) {
+            sb.append(participatingField).append('\u0001');
+        }
+        sb.append('\0').append(fd.formula());
+        return sb.toString();
+    }
+
+    /**
+     * Determines which properties differ between two versions of a field.
+     */
+    private static Set<FieldChange.Aspect> aspects(FieldData before, FieldData after) {
+        Set<FieldChange.Aspect> aspects = EnumSet.noneOf(FieldChange.Aspect.class);
+        if (!Objects.equals(before.formula(), after.formula())) aspects.add(FieldChange.Aspect.FORMULA);
+        if (!Objects.equals(before.trigger(), after.trigger())) aspects.add(FieldChange.Aspect.TRIGGER);
+        if (!Arrays.equals(before.participatingFields(), after.participatingFields())) {
+            aspects.add(FieldChange.Aspect.PARTICIPATING_FIELDS);
+        }
+        if (!Objects.equals(before.label(), after.label())) aspects.add(FieldChange.Aspect.LABEL);
+        if (!Objects.equals(before.type(), after.type())) aspects.add(FieldChange.Aspect.TYPE);
+        return Collections.unmodifiableSet(aspects);
+    }
+}
@@ -0,0 +1,35 @@
+package com.extractor.diff;
+
+import java.util.List;
+
+/**
+ * Result of comparing two versions of a definition.
+ *
+ * @param changes   Added, removed and modified fields, ordered by kind and key
+ * @param unchanged Number of fields identical in both versions
+ */
+public record DiffResult(List<FieldChange> changes, int unchanged) {
+
+    /**
+     * @return Number of changes of the given kind
+     */
+    public long count(FieldChange.Kind kind) {
+        return changes.stream().filter(c -> c.kind() == kind).count();
+    }
+
+    /**
+     * @return {@code true} if both versions contain the same fields
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * @return One-line summary suitable for the log
+     */
+    public String summary() {
+        return "Added: %d, removed: %d, modified: %d, unchanged: %d".formatted(
+                count(FieldChange.Kind.ADDED), count(FieldChange.Kind.REMOVED),
+                count(FieldChange.Kind.MODIFIED), unchanged);
+    }
+}
@@ -0,0 +1,66 @@
+package com.extractor.diff;
+
+import com.extractor.model.FieldData;
+
+import java.util.Set;
+
+/**
+ * A calculated field that differs between two versions of a definition.
+ *
+ * @param kind    Whether the field was added, removed or modified
+ * @param key     Field key ({@code section/FieldID})
+ * @param before  Field in the old definition, {@code null} if added
+ * @param after   Field in the new definition, {@code null} if removed
+ * @param aspects Changed properties; empty unless {@code kind} is {@link Kind#MODIFIED}
+ */
+public record FieldChange(Kind kind, String key, FieldData before, FieldData after, Set<Aspect> aspects) {
+
+    /**
+     * Kind of change.
+     */
+    public enum Kind {
+        ADDED("Added"),
+        REMOVED("Removed"),
+        MODIFIED("Modified");
+
+        private final String displayName;
+
+        Kind(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Property of a field that can change between versions.
+     */
+    public enum Aspect {
+        FORMULA("formula"),
+        TRIGGER("trigger"),
+        PARTICIPATING_FIELDS("participating fields"),
+        LABEL("label"),
+        TYPE("type");
+
+        private final String displayName;
+
+        Aspect(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * @return Field in the newest version that has it
+     */
+    public FieldData current() {
+        return after != null ? after : before;
+    }
+}
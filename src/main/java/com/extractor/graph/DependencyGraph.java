@@ -0,0 +1,450 @@
+package com.extractor.graph;
+
+import com.extractor.model.FieldData;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency graph between calculated fields and their participating fields.
+ * <p>
+ * Every FieldID — calculated or only referenced as a participating field —
+ * becomes an int node. Edges are stored twice in compressed sparse row form
+ * (an offsets array plus one flat int array): once from each field to the
+ * fields it reads, once from each field to the formulas that read it. This
+ * keeps tens of thousands of fields compact and makes every query a walk
+ * over primitive arrays:
+ * <ul>
+ *     <li>{@link #evaluationOrder()} — topological order, participating fields first</li>
+ *     <li>{@link #cycles()} — groups of formulas that depend on each other</li>
+ *     <li>{@link #affectedBy(String)} — formulas transitively affected by a change</li>
+ * </ul>
+ * Nodes are keyed by FieldID alone, since participating fields carry no section.
+ * If a FieldID is calculated in several sections, the last one wins, as with
+ * duplicate output files.
+ * <p>
+ * Instances are immutable and safe to query from several threads.
+ */
+public final class DependencyGraph {
+
+    /**
+     * Name of the exported graph file written next to the extracted JS.
+     */
+    public static final String FILE_NAME = "Dependencies.txt";
+
+    private final String[] names;
+    private final Map<String, Integer> nodes;
+    private final FieldData[] fields;
+
+    // CSR: dependencies of node v are deps[depOffsets[v] .. depOffsets[v + 1])
+    private final int[] depOffsets;
+    private final int[] deps;
+
+    // CSR: formulas reading node v are dependents[dependentOffsets[v] .. dependentOffsets[v + 1])
+    private final int[] dependentOffsets;
+    private final int[] dependents;
+
+    private final int[] order;
+    private final List<int[]> cycles;
+
+    private DependencyGraph(String[] names, Map<String, Integer> nodes, FieldData[] fields,
+                            int[] depOffsets, int[] deps) {
+        this.names = names;
+        this.nodes = nodes;
+        this.fields = fields;
+        this.depOffsets = depOffsets;
+        this.deps = deps;
+
+        int n = names.length;
+        this.dependentOffsets = new int[n + 1];
+        this.dependents = new int[deps.length];
+
+        for (int dep : deps) dependentOffsets[dep + 1]++;
+        for (int v = 0; v < n; v++) dependentOffsets[v + 1] += dependentOffsets[v];
+
+        int[] fill = Arrays.copyOf(dependentOffsets, n);
+        for (int v = 0; v < n; v++) {
+            for (int i = depOffsets[v]; i < depOffsets[v + 1]; i++) {
+                dependents[fill[deps[i]]++] = v;
+            }
+        }
+
+        this.order = topologicalOrder();
+        this.cycles = stronglyConnectedCycles();
+    }
+
+    /**
+     * Builds the graph of the given fields.
+     *
+     * @param fields Extracted fields
+     * @return Dependency graph
+     */
+    public static DependencyGraph of(List<FieldData> fields) {
+        Map<String, Integer> nodes = new HashMap<>(fields.size() * 2);
+        List<String> names = new ArrayList<>(fields.size());
+
+        // Calculated fields first, so their node ids follow extraction order
+        int[] fieldNodes = new int[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            fieldNodes[i] = node(fields.get(i).fieldId(), nodes, names);
+        }
+
+        int[] fieldOfNode = new int[fields.size()];
+        Arrays.fill(fieldOfNode, -1);
+        for (int i = 0; i < fields.size(); i++) fieldOfNode[fieldNodes[i]] = i;
+
+        int[][] lists = new int[fields.size()][];
+        for (int i = 0; i < fields.size(); i++) {
+            String[] participating = fields.get(i).participatingFields();
+            int[] list = new int[participating.length];
+            for (int j = 0; j < participating.length; j++) list[j] = node(participating[j], nodes, names);
+            lists[i] = list;
+        }
+
+        int n = names.size();
+        int[] depOffsets = new int[n + 1];
+        int[] lastSeen = new int[n];
+        Arrays.fill(lastSeen, -1);
+
+        // Count distinct dependencies per node
+        for (int v = 0; v < fieldOfNode.length; v++) {
+            int f = fieldOfNode[v];
+            if (f < 0) continue;
+            for (int dep : lists[f]) {
+                if (lastSeen[dep] != v) {
+                    lastSeen[dep] = v;
+                    depOffsets[v + 1]++;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) depOffsets[v + 1] += depOffsets[v];
+
+        int[] deps = new int[depOffsets[n]];
+        Arrays.fill(lastSeen, -1);
+        for (int v = 0; v < fieldOfNode.length; v++) {
+            int f = fieldOfNode[v];
+            if (f < 0) continue;
+            int pos = depOffsets[v];
+            for (int dep : lists[f]) {
+                if (lastSeen[dep] != v) {
+                    lastSeen[dep] = v;
+                    deps[pos++] = dep;
+                }
+            }
+        }
+
+        FieldData[] nodeFields = new FieldData[n];
+        for (int v = 0; v < fieldOfNode.length; v++) {
+            if (fieldOfNode[v] >= 0) nodeFields[v] = fields.get(fieldOfNode[v]);
+        }
+
+        return new DependencyGraph(names.toArray(String[]::new), Map.copyOf(nodes), nodeFields, depOffsets, deps);
+    }
+
+    /**
+     * Returns the node of a FieldID, creating it on first use.
+     */
+    private static int node(String fieldId, Map<String, Integer> nodes, List<String> names) {
+        Integer existing = nodes.get(fieldId);
+        if (existing != null) return existing;
+
+        int id = names.size();
+        nodes.put(fieldId, id);
+        names.add(fieldId);
+        return id;
+    }
+
+    /**
+     * @return Number of nodes (calculated and participating fields)
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return Number of dependency edges
+     */
+    public int edgeCount() {
+        return deps.length;
+    }
+
+    /**
+     * @param fieldId FieldID to look up
+     * @return Node of the field, or {@code -1} if the field does not occur
+     */
+    public int indexOf(String fieldId) {
+        Integer node = nodes.get(fieldId);
+        return node == null ? -1 : node;
+    }
+
+    /**
+     * @param node Node index
+     * @return FieldID of the node
+     */
+    public String name(int node) {
+        return names[node];
+    }
+
+    /**
+     * @param node Node index
+     * @return Calculated field of the node, or {@code null} if it is only a participating field
+     */
+    public FieldData field(int node) {
+        return fields[node];
+    }
+
+    /**
+     * @param fieldId FieldID to look up
+     * @return Fields the formula reads directly; empty if unknown or not calculated
+     */
+    public List<String> dependencies(String fieldId) {
+        int v = indexOf(fieldId);
+        return v < 0 ? List.of() : names(deps, depOffsets[v], depOffsets[v + 1]);
+    }
+
+    /**
+     * @param fieldId FieldID to look up
+     * @return Formulas reading the field directly; empty if unknown
+     */
+    public List<String> dependents(String fieldId) {
+        int v = indexOf(fieldId);
+        return v < 0 ? List.of() : names(dependents, dependentOffsets[v], dependentOffsets[v + 1]);
+    }
+
+    /**
+     * Finds every formula that has to be re-evaluated when a field changes.
+     *
+     * @param fieldId Changed FieldID
+     * @return Transitively dependent formulas in breadth-first order; empty if unknown
+     */
+    public List<String> affectedBy(String fieldId) {
+        int start = indexOf(fieldId);
+        if (start < 0) return List.of();
+
+        int[] affected = affectedBy(start);
+        return names(affected, 0, affected.length);
+    }
+
+    /**
+     * Finds every node transitively depending on the given node.
+     *
+     * @param node Changed node
+     * @return Dependent nodes in breadth-first order, excluding {@code node} unless it is on a cycle
+     */
+    public int[] affectedBy(int node) {
+        boolean[] seen = new boolean[names.length];
+        int[] queue = new int[names.length];
+        int head = 0;
+        int tail = 0;
+
+        for (int i = dependentOffsets[node]; i < dependentOffsets[node + 1]; i++) {
+            int d = dependents[i];
+            if (!seen[d]) {
+                seen[d] = true;
+                queue[tail++] = d;
+            }
+        }
+
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = dependentOffsets[v]; i < dependentOffsets[v + 1]; i++) {
+                int d = dependents[i];
+                if (!seen[d]) {
+                    seen[d] = true;
+                    queue[tail++] = d;
+                }
+            }
+        }
+
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Returns calculated fields in an order where every formula comes after
+     * the calculated fields it reads. Formulas on a cycle, or depending on
+     * one, have no such order and are omitted (see {@link #cycles()}).
+     *
+     * @return FieldIDs in evaluation order
+     */
+    public List<String> evaluationOrder() {
+        List<String> result = new ArrayList<>(order.length);
+        for (int v : order) {
+            if (fields[v] != null) result.add(names[v]);
+        }
+        return result;
+    }
+
+    /**
+     * @return Groups of formulas that depend on each other, each as its FieldIDs
+     */
+    public List<List<String>> cycles() {
+        List<List<String>> result = new ArrayList<>(cycles.size());
+        for (int[] cycle : cycles) result.add(names(cycle, 0, cycle.length));
+        return result;
+    }
+
+    /**
+     * @return One-line summary suitable for the log
+     */
+    public String summary() {
+        return "Dependency graph: %d fields, %d edges, %d cycles".formatted(size(), edgeCount(), cycles.size());
+    }
+
+    /**
+     * Kahn's algorithm over the dependency arrays.
+     */
+    private int[] topologicalOrder() {
+        int n = names.length;
+        int[] pending = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        for (int v = 0; v < n; v++) {
+            pending[v] = depOffsets[v + 1] - depOffsets[v];
+            if (pending[v] == 0) queue[tail++] = v;
+        }
+
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = dependentOffsets[v]; i < dependentOffsets[v + 1]; i++) {
+                if (--pending[dependents[i]] == 0) queue[tail++] = dependents[i];
+            }
+        }
+
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Iterative Tarjan: strongly connected components with more than one
+     * node, or a single node reading itself.
+     */
+    private List<int[]> stronglyConnectedCycles() {
+        int n = names.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] callStack = new int[n];
+        int[] edge = new int[n];
+        int sp = 0;
+        int counter = 0;
+        List<int[]> result = new ArrayList<>();
+
+        Arrays.fill(index, -1);
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0 || depOffsets[root] == depOffsets[root + 1]) continue;
+
+            int csp = 0;
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+            edge[root] = depOffsets[root];
+            callStack[csp++] = root;
+
+            while (csp > 0) {
+                int v = callStack[csp - 1];
+
+                if (edge[v] < depOffsets[v + 1]) {
+                    int w = deps[edge[v]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        edge[w] = depOffsets[w];
+                        callStack[csp++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                csp--;
+                if (csp > 0) {
+                    int parent = callStack[csp - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+
+                if (low[v] == index[v]) {
+                    int top = sp;
+                    do {
+                        onStack[stack[--sp]] = false;
+                    } while (stack[sp] != v);
+
+                    int[] component = Arrays.copyOfRange(stack, sp, top);
+                    if (component.length > 1 || readsItself(v)) {
+                        Arrays.sort(component);
+                        result.add(component);
+                    }
+                }
+            }
+        }
+
+        return List.copyOf(result);
+    }
+
+    private boolean readsItself(int v) {
+        for (int i = depOffsets[v]; i < depOffsets[v + 1]; i++) {
+            if (deps[i] == v) return true;
+        }
+        return false;
+    }
+
+    private List<String> names(int[] array, int from, int to) {
+        List<String> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) result.add(names[array[i]]);
+        return result;
+    }
+
+    /**
+     * Renders the graph as text: evaluation order, cycles and, per field,
+     * its participating fields and the formulas reading it.
+     *
+     * @return Graph file content
+     */
+    public String render() {
+        StringBuilder sb = new StringBuilder(64 * names.length + 256);
+        sb.append("# ").append(summary()).append('\n');
+
+        sb.append("\n# Evaluation order (Section\tFieldID)\n");
+        for (int v : order) {
+            if (fields[v] != null) sb.append(fields[v].section()).append('\t').append(names[v]).append('\n');
+        }
+
+        sb.append("\n# Cycles (fields depending on each other)\n");
+        for (int[] cycle : cycles) {
+            sb.append(String.join(", ", names(cycle, 0, cycle.length))).append('\n');
+        }
+
+        sb.append("\n# Dependencies (FieldID\tParticipating fields\tRead by)\n");
+        for (int v = 0; v < names.length; v++) {
+            sb.append(names[v]).append('\t')
+                    .append(String.join(", ", names(deps, depOffsets[v], depOffsets[v + 1]))).append('\t')
+                    .append(String.join(", ", names(dependents, dependentOffsets[v], dependentOffsets[v + 1])))
+                    .append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #render()} to a file via a temporary file.
+     *
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    public void export(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, render(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,306 @@
+package com.extractor.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage timers and counters of one extraction run.
+ * <p>
+ * Stages are read (time spent inside the input reader), parse (JSON
+ * scanning, excluding reads and waits for the writers), render (building
+ * file content) and write (putting content on disk or into an archive).
+ * Render and write times are summed over all writer threads, so with
+ * pipelined or parallel output they can exceed the wall-clock total.
+ * <p>
+ * Heap usage is sampled while reads, renders and writes are recorded, at most
+ * once per millisecond. It is the heap of the whole process, so concurrent runs
+ * in the same process see each other's allocations.
+ * <p>
+ * All recording methods are thread-safe and cheap enough to call per file.
+ * {@link #DISABLED} ignores everything and is used when nobody asked for metrics.
+ */
+public final class RunMetrics {
+
+    /**
+     * Name of the machine-readable report written into the output folder.
+     */
+    public static final String FILE_NAME = "metrics.json";
+
+    /**
+     * Instance ignoring all recordings.
+     */
+    public static final RunMetrics DISABLED = new RunMetrics(false);
+
+    /**
+     * Minimum time between two heap samples.
+     */
+    private static final long HEAP_SAMPLE_INTERVAL_NANOS = 1_000_000;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * Machine-readable form of the metrics, as written to {@link #FILE_NAME}.
+     *
+     * @param version         Extractor version, or "dev" when not run from a packaged JAR
+     * @param timestamp       Completion time (ISO-8601)
+     * @param input           Input file name
+     * @param inputBytes      Input size in bytes
+     * @param fieldsScanned   Field objects found in the Fields/LineFields sections
+     * @param fieldsExtracted Calculated fields with a formula
+     * @param filesWritten    Files or entries actually written
+     * @param bytesWritten    Bytes of written content
+     * @param readMs          Time spent reading the input
+     * @param parseMs         Time spent parsing JSON
+     * @param queueWaitMs     Time the parser waited for writers (pipelined output only)
+     * @param renderMs        Time spent rendering file content, summed over threads
+     * @param writeMs         Time spent writing, summed over threads
+     * @param totalMs         Wall-clock time of the run
+     * @param writeP50Micros  Median per-file write latency
+     * @param writeP99Micros  99th percentile per-file write latency
+     * @param peakHeapBytes   Highest heap usage of the process sampled during the run,
+     *                        including other runs in the same process
+     */
+    public record Snapshot(
+            String version,
+            String timestamp,
+            String input,
+            long inputBytes,
+            long fieldsScanned,
+            long fieldsExtracted,
+            long filesWritten,
+            long bytesWritten,
+            double readMs,
+            double parseMs,
+            double queueWaitMs,
+            double renderMs,
+            double writeMs,
+            double totalMs,
+            double writeP50Micros,
+            double writeP99Micros,
+            long peakHeapBytes
+    ) {
+    }
+
+    private final boolean enabled;
+    private final long startNanos;
+
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder renderNanos = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder filesWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+
+    private volatile String input = "";
+    private volatile long inputBytes;
+    private volatile long fieldsScanned;
+    private volatile long fieldsExtracted;
+    private volatile long totalNanos;
+    private volatile long peakHeapBytes;
+    private volatile long lastHeapSample;
+
+    /**
+     * Starts collecting metrics.
+     */
+    public RunMetrics() {
+        this(true);
+    }
+
+    private RunMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.startNanos = System.nanoTime();
+        if (enabled) sampleHeapNow();
+    }
+
+    /**
+     * @return {@code false} for {@link #DISABLED}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds time spent inside the input reader.
+     */
+    public void addRead(long nanos) {
+        if (!enabled) return;
+        readNanos.add(nanos);
+        sampleHeap();
+    }
+
+    /**
+     * Adds the wall time of the parse loop. Time recorded as read or queue
+     * wait during the loop is subtracted when reporting the parse stage.
+     */
+    public void addParse(long nanos) {
+        if (enabled) parseNanos.add(nanos);
+    }
+
+    /**
+     * Adds time the parser waited for free space in the writer queues.
+     */
+    public void addQueueWait(long nanos) {
+        if (enabled) queueWaitNanos.add(nanos);
+    }
+
+    /**
+     * Adds time spent rendering file content.
+     */
+    public void addRender(long nanos) {
+        if (!enabled) return;
+        renderNanos.add(nanos);
+        sampleHeap();
+    }
+
+    /**
+     * Records one written file or archive entry.
+     *
+     * @param bytes Size of the written content
+     * @param nanos Time the write took
+     */
+    public void recordWrite(long bytes, long nanos) {
+        if (!enabled) return;
+        writeNanos.add(nanos);
+        filesWritten.increment();
+        bytesWritten.add(bytes);
+        writeLatency.record(nanos);
+        sampleHeap();
+    }
+
+    /**
+     * Records input and parser counters.
+     *
+     * @param input           Input file name
+     * @param inputBytes      Input size in bytes
+     * @param fieldsScanned   Field objects found
+     * @param fieldsExtracted Calculated fields extracted
+     */
+    public void parsed(String input, long inputBytes, long fieldsScanned, long fieldsExtracted) {
+        this.input = input;
+        this.inputBytes = inputBytes;
+        this.fieldsScanned = fieldsScanned;
+        this.fieldsExtracted = fieldsExtracted;
+    }
+
+    /**
+     * Stops the wall clock and captures the heap peak.
+     */
+    public void finish() {
+        if (!enabled) return;
+        totalNanos = System.nanoTime() - startNanos;
+        sampleHeapNow();
+        peakHeapBytes = peakHeap.get();
+    }
+
+    /**
+     * Samples the heap usage unless the last sample is more recent than {@link #HEAP_SAMPLE_INTERVAL_NANOS}.
+     */
+    private void sampleHeap() {
+        if (System.nanoTime() - lastHeapSample >= HEAP_SAMPLE_INTERVAL_NANOS) sampleHeapNow();
+    }
+
+    private void sampleHeapNow() {
+        lastHeapSample = System.nanoTime();
+        peakHeap.accumulate(MEMORY.getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * @return Current values as a serializable record
+     */
+    public Snapshot snapshot() {
+        String version = RunMetrics.class.getPackage().getImplementationVersion();
+        return new Snapshot(
+                version == null ? "dev" : version,
+                Instant.now().toString(),
+                input,
+                inputBytes,
+                fieldsScanned,
+                fieldsExtracted,
+                filesWritten.sum(),
+                bytesWritten.sum(),
+                millis(readNanos.sum()),
+                millis(Math.max(0, parseNanos.sum() - readNanos.sum() - queueWaitNanos.sum())),
+                millis(queueWaitNanos.sum()),
+                millis(renderNanos.sum()),
+                millis(writeNanos.sum()),
+                millis(totalNanos),
+                writeLatency.percentile(50) / 1_000.0,
+                writeLatency.percentile(99) / 1_000.0,
+                peakHeapBytes
+        );
+    }
+
+    /**
+     * @return Human-readable multi-line summary
+     */
+    public String summary() {
+        Snapshot s = snapshot();
+        double inputMb = s.inputBytes() / (1024.0 * 1024.0);
+
+        return String.join("\n",
+                "Metrics:",
+                String.format(Locale.ROOT, "  Read:   %.2f MB in %.0f ms (%.1f MB/s)",
+                        inputMb, s.readMs(), inputMb / Math.max(s.readMs() / 1000.0, 1e-9)),
+                String.format(Locale.ROOT, "  Parse:  %.0f ms, %d of %d fields extracted",
+                        s.parseMs(), s.fieldsExtracted(), s.fieldsScanned()),
+                String.format(Locale.ROOT, "  Render: %.0f ms", s.renderMs()),
+                String.format(Locale.ROOT, "  Write:  %d files, %.2f MB in %.0f ms, p50 %.3f ms, p99 %.3f ms",
+                        s.filesWritten(), s.bytesWritten() / (1024.0 * 1024.0), s.writeMs(),
+                        s.writeP50Micros() / 1000.0, s.writeP99Micros() / 1000.0),
+                String.format(Locale.ROOT, "  Total:  %.0f ms (queue wait %.0f ms), peak process heap %.0f MB",
+                        s.totalMs(), s.queueWaitMs(), s.peakHeapBytes() / (1024.0 * 1024.0)));
+    }
+
+    /**
+     * Writes {@link #snapshot()} as JSON via a temporary file.
+     *
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, JsonHolder.GSON.toJson(snapshot()), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns where the report of a run belongs: inside the output folder,
+     * or next to the archive for archive output.
+     *
+     * @param target  Output folder or archive of the run
+     * @param archive Whether {@code target} is an archive file
+     * @return Report file
+     */
+    public static File fileFor(File target, boolean archive) {
+        if (!archive) return new File(target, FILE_NAME);
+        String name = target.getName().replaceFirst("\\.zip$", "");
+        return new File(target.getAbsoluteFile().getParentFile(), name + "." + FILE_NAME);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * Holds the Gson instance so that it is only loaded once a report is actually written.
+     */
+    private static final class JsonHolder {
+        private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    }
+}
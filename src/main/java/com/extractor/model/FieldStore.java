@@ -0,0 +1,251 @@
+package com.extractor.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Compact, append-only list of {@link FieldData}.
+ * <p>
+ * Fields are not kept as records: every string (sections, FieldIDs, labels, types,
+ * triggers, formula bodies and participating-field names) is interned once into a
+ * symbol table, and each field is a row of int symbol ids in columnar arrays.
+ * Participating fields are stored CSR-style — one flat id array plus per-field
+ * start offsets — instead of one {@code String[]} per field. Names such as
+ * {@code "Number"} or {@code "OnChange"} that the parser reads thousands of times
+ * are thus held once, and a field costs a few ints instead of a record, an array
+ * and its own copies of every string.
+ * <p>
+ * {@link #get(int)} materializes a short-lived {@link FieldData} view, so the store
+ * can be passed wherever a {@code List<FieldData>} is expected. Columns can also
+ * be read directly through the per-column accessors without creating a view.
+ * <p>
+ * Not thread-safe while being filled; safe to read concurrently once published.
+ */
+public final class FieldStore extends AbstractList<FieldData> implements RandomAccess {
+
+    private static final int INITIAL_FIELDS = 256;
+    private static final int INITIAL_SYMBOLS = 1024;
+
+    /**
+     * Distinct strings, indexed by symbol id.
+     */
+    private String[] symbols = new String[INITIAL_SYMBOLS];
+    private int symbolCount;
+
+    /**
+     * Open-addressing hash table of symbol ids + 1 (0 = empty slot), sized to a power of two.
+     */
+    private int[] slots = new int[INITIAL_SYMBOLS * 2];
+
+    private int[] section = new int[INITIAL_FIELDS];
+    private int[] fieldId = new int[INITIAL_FIELDS];
+    private int[] label = new int[INITIAL_FIELDS];
+    private int[] type = new int[INITIAL_FIELDS];
+    private int[] trigger = new int[INITIAL_FIELDS];
+    private int[] formula = new int[INITIAL_FIELDS];
+
+    /**
+     * Start of each field's participating ids in {@link #participating}; entry {@code size} is the end.
+     */
+    private int[] participatingStart = new int[INITIAL_FIELDS + 1];
+    private int[] participating = new int[INITIAL_FIELDS * 2];
+
+    private int size;
+
+    /**
+     * Appends a field, interning all of its strings.
+     *
+     * @param fd Field to add
+     * @return always {@code true}
+     */
+    @Override
+    public boolean add(FieldData fd) {
+        if (size == section.length) grow();
+
+        section[size] = intern(fd.section());
+        fieldId[size] = intern(fd.fieldId());
+        label[size] = intern(fd.label());
+        type[size] = intern(fd.type());
+        trigger[size] = intern(fd.trigger());
+        formula[size] = intern(fd.formula());
+
+        String[] names = fd.participatingFields();
+        int start = participatingStart[size];
+        if (start + names.length > participating.length) {
+            participating = Arrays.copyOf(participating, Math.max(participating.length * 2, start + names.length));
+        }
+        for (int i = 0; i < names.length; i++) {
+            participating[start + i] = intern(names[i]);
+        }
+        participatingStart[size + 1] = start + names.length;
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Materializes a {@link FieldData} view of a stored field.
+     *
+     * @param index Field index
+     * @return New record holding the field's interned strings
+     */
+    @Override
+    public FieldData get(int index) {
+        return new FieldData(
+                section(index),
+                fieldId(index),
+                label(index),
+                type(index),
+                trigger(index),
+                formula(index),
+                participatingFields(index)
+        );
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index Field index
+     * @return Section of the field
+     */
+    public String section(int index) {
+        return symbols[section[checkIndex(index)]];
+    }
+
+    /**
+     * @param index Field index
+     * @return FieldID of the field
+     */
+    public String fieldId(int index) {
+        return symbols[fieldId[checkIndex(index)]];
+    }
+
+    /**
+     * @param index Field index
+     * @return Label of the field
+     */
+    public String label(int index) {
+        return symbols[label[checkIndex(index)]];
+    }
+
+    /**
+     * @param index Field index
+     * @return Type of the field
+     */
+    public String type(int index) {
+        return symbols[type[checkIndex(index)]];
+    }
+
+    /**
+     * @param index Field index
+     * @return Trigger of the field
+     */
+    public String trigger(int index) {
+        return symbols[trigger[checkIndex(index)]];
+    }
+
+    /**
+     * @param index Field index
+     * @return Formula body of the field
+     */
+    public String formula(int index) {
+        return symbols[formula[checkIndex(index)]];
+    }
+
+    /**
+     * @param index Field index
+     * @return New array with the participating field names of the field
+     */
+    public String[] participatingFields(int index) {
+        int start = participatingStart[checkIndex(index)];
+        int end = participatingStart[index + 1];
+        String[] names = new String[end - start];
+        for (int i = start; i < end; i++) {
+            names[i - start] = symbols[participating[i]];
+        }
+        return names;
+    }
+
+    /**
+     * @return Number of distinct strings held
+     */
+    public int symbolCount() {
+        return symbolCount;
+    }
+
+    /**
+     * Shrinks all arrays to their used length, once no more fields will be added.
+     */
+    public void trimToSize() {
+        symbols = Arrays.copyOf(symbols, Math.max(symbolCount, 1));
+        section = Arrays.copyOf(section, size);
+        fieldId = Arrays.copyOf(fieldId, size);
+        label = Arrays.copyOf(label, size);
+        type = Arrays.copyOf(type, size);
+        trigger = Arrays.copyOf(trigger, size);
+        formula = Arrays.copyOf(formula, size);
+        participatingStart = Arrays.copyOf(participatingStart, size + 1);
+        participating = Arrays.copyOf(participating, participatingStart[size]);
+    }
+
+    /**
+     * Returns the symbol id of a string, adding it to the table if new.
+     */
+    private int intern(String s) {
+        int mask = slots.length - 1;
+        int slot = spread(s.hashCode()) & mask;
+        while (true) {
+            int id = slots[slot] - 1;
+            if (id < 0) break;
+            if (symbols[id].equals(s)) return id;
+            slot = (slot + 1) & mask;
+        }
+
+        if (symbolCount == symbols.length) symbols = Arrays.copyOf(symbols, symbolCount * 2);
+        int id = symbolCount++;
+        symbols[id] = s;
+        slots[slot] = id + 1;
+        // Keep the load factor at or below 1/2
+        if (symbolCount * 2 > slots.length) rehash();
+        return id;
+    }
+
+    private void rehash() {
+        int[] table = new int[slots.length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < symbolCount; id++) {
+            int slot = spread(symbols[id].hashCode()) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = id + 1;
+        }
+        slots = table;
+    }
+
+    /**
+     * Mixes the high bits into the low ones, which select the slot.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void grow() {
+        int capacity = Math.max(section.length * 2, INITIAL_FIELDS);
+        section = Arrays.copyOf(section, capacity);
+        fieldId = Arrays.copyOf(fieldId, capacity);
+        label = Arrays.copyOf(label, capacity);
+        type = Arrays.copyOf(type, capacity);
+        trigger = Arrays.copyOf(trigger, capacity);
+        formula = Arrays.copyOf(formula, capacity);
+        participatingStart = Arrays.copyOf(participatingStart, capacity + 1);
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+}
@@ -0,0 +1,38 @@
+package com.extractor.model;
+
+/**
+ * Summary of a single output run.
+ *
+ * @param written Number of fields whose file was (re)written
+ * @param skipped Number of fields skipped because their content was unchanged
+ * @param deleted Number of stale files deleted for fields no longer present
+ * @param failed  Number of fields that could not be written
+ */
+public record WriteStats(
+        int written,
+        int skipped,
+        int deleted,
+        int failed
+) {
+
+    /**
+     * No files touched.
+     */
+    public static final WriteStats EMPTY = new WriteStats(0, 0, 0, 0);
+
+    /**
+     * @param other Counts of another run
+     * @return Sum of both runs' counts
+     */
+    public WriteStats plus(WriteStats other) {
+        return new WriteStats(written + other.written, skipped + other.skipped, deleted + other.deleted,
+                failed + other.failed);
+    }
+
+    /**
+     * @return Human-readable one-line summary
+     */
+    public String summary() {
+        return "Written: %d, unchanged: %d, deleted: %d, failed: %d".formatted(written, skipped, deleted, failed);
+    }
+}
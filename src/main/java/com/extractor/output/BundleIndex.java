@@ -0,0 +1,147 @@
+package com.extractor.output;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte-offset index of a {@link BundleOutput} bundle.
+ * <p>
+ * The index is a UTF-8 tab-separated file with one line per formula:
+ * {@code FieldID, Label, Section, Trigger, Offset, Length}. Offsets and
+ * lengths are in bytes of the bundle file, so a single formula is read
+ * with one positioned read via {@link #read(File, Entry)}.
+ */
+public final class BundleIndex {
+
+    /**
+     * Header line written as the first line of every index.
+     */
+    static final String HEADER = "# FieldID\tLabel\tSection\tTrigger\tOffset\tLength";
+
+    /**
+     * Index entry for one formula.
+     *
+     * @param fieldId Unique identifier of the field
+     * @param label   Human-readable label of the field
+     * @param section Section identification (Header Fields or Line Fields)
+     * @param trigger Event that triggers the formula execution
+     * @param offset  Byte offset of the rendered formula in the bundle
+     * @param length  Byte length of the rendered formula in the bundle
+     */
+    public record Entry(
+            String fieldId,
+            String label,
+            String section,
+            String trigger,
+            long offset,
+            int length
+    ) {
+    }
+
+    private final List<Entry> entries;
+    private final Map<String, List<Entry>> byFieldId = new HashMap<>();
+
+    private BundleIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+        for (Entry entry : entries) {
+            byFieldId.computeIfAbsent(entry.fieldId(), _ -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    /**
+     * Loads an index file.
+     *
+     * @param indexFile Index written by {@link BundleOutput}
+     * @return Loaded index
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static BundleIndex load(File indexFile) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] parts = line.split("\t", -1);
+                if (parts.length != 6) {
+                    throw new IOException("Malformed index line " + lineNo + " in " + indexFile.getName());
+                }
+                try {
+                    entries.add(new Entry(parts[0], parts[1], parts[2], parts[3],
+                            Long.parseLong(parts[4]), Integer.parseInt(parts[5])));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed offset at line " + lineNo + " in " + indexFile.getName(), e);
+                }
+            }
+        }
+
+        return new BundleIndex(entries);
+    }
+
+    /**
+     * @return All entries in bundle order
+     */
+    public List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Finds entries by FieldID (a FieldID may exist in both sections).
+     *
+     * @param fieldId Field identifier
+     * @return Matching entries, empty if none
+     */
+    public List<Entry> find(String fieldId) {
+        return byFieldId.getOrDefault(fieldId, List.of());
+    }
+
+    /**
+     * Reads one rendered formula from the bundle with a single positioned read.
+     *
+     * @param bundleFile Bundle written together with this index
+     * @param entry      Entry to read
+     * @return Rendered file content of the field
+     * @throws IOException if reading fails
+     */
+    public static String read(File bundleFile, Entry entry) throws IOException {
+        try (FileChannel channel = FileChannel.open(bundleFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+            long position = entry.offset();
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, position);
+                if (n < 0) throw new IOException("Bundle shorter than index entry for " + entry.fieldId());
+                position += n;
+            }
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Formats an entry as one index line (without line break).
+     */
+    static String formatLine(Entry entry) {
+        return clean(entry.fieldId()) + '\t' + clean(entry.label()) + '\t' + clean(entry.section()) + '\t'
+                + clean(entry.trigger()) + '\t' + entry.offset() + '\t' + entry.length();
+    }
+
+    /**
+     * Replaces characters that would break the tab-separated layout.
+     */
+    private static String clean(String value) {
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,107 @@
+package com.extractor.output;
+
+import com.extractor.graph.DependencyGraph;
+import com.extractor.model.FieldData;
+import com.extractor.model.WriteStats;
+import com.extractor.ui.ProgressCallback;
+import com.extractor.util.FileUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Writes all rendered formulas into one concatenated .js bundle plus an index.
+ * <p>
+ * The bundle is produced in a single sequential, buffered pass. Each field's
+ * rendered content ({@link JsRenderer}) is appended and its byte offset and
+ * length are recorded in the {@link BundleIndex} file, so tools can seek
+ * straight to one formula without scanning the bundle.
+ */
+public final class BundleOutput {
+
+    /**
+     * Bundle file name inside the output folder.
+     */
+    public static final String BUNDLE_FILE = "Bundle.js";
+
+    /**
+     * Index file name inside the output folder.
+     */
+    public static final String INDEX_FILE = "Bundle.idx";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Utility class — no instances allowed.
+     */
+    private BundleOutput() {
+    }
+
+    /**
+     * Writes bundle and index into the output folder.
+     *
+     * @param fields      List of parsed field data
+     * @param outDir      Output folder
+     * @param addComments Flag to determine if the comment header should precede each formula
+     * @param callback    Callback to report progress and logs
+     * @return Written counts of the run
+     * @throws IOException if bundle or index cannot be written (previous files are kept)
+     */
+    public static WriteStats write(List<FieldData> fields, File outDir, boolean addComments,
+                                   ProgressCallback callback) throws IOException {
+        FileUtils.ensureDir(outDir);
+        ProgressReporter reporter = new ProgressReporter(fields.size(), callback);
+
+        Path bundle = new File(outDir, BUNDLE_FILE).toPath();
+        Path index = new File(outDir, INDEX_FILE).toPath();
+        Path bundleTmp = new File(outDir, BUNDLE_FILE + ".tmp").toPath();
+        Path indexTmp = new File(outDir, INDEX_FILE + ".tmp").toPath();
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(bundleTmp), BUFFER_SIZE);
+             Writer idx = new BufferedWriter(Files.newBufferedWriter(indexTmp, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            idx.write(BundleIndex.HEADER);
+            idx.write('\n');
+
+            long offset = 0;
+            for (FieldData fd : fields) {
+                long start = System.nanoTime();
+                byte[] content = JsRenderer.render(fd, addComments).getBytes(StandardCharsets.UTF_8);
+                long rendered = System.nanoTime();
+                reporter.metrics().addRender(rendered - start);
+
+                out.write(content);
+                reporter.metrics().recordWrite(content.length, System.nanoTime() - rendered);
+
+                idx.write(BundleIndex.formatLine(new BundleIndex.Entry(
+                        fd.fieldId(), fd.label(), fd.section(), fd.trigger(), offset, content.length)));
+                idx.write('\n');
+
+                offset += content.length;
+                reporter.generated(BUNDLE_FILE + " ← " + fd.section() + "/" + fd.fieldId());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(bundleTmp);
+            Files.deleteIfExists(indexTmp);
+            throw e;
+        }
+
+        Files.move(bundleTmp, bundle, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(indexTmp, index, StandardCopyOption.REPLACE_EXISTING);
+
+        DependencyGraph graph = DependencyGraph.of(fields);
+        graph.export(new File(outDir, DependencyGraph.FILE_NAME).toPath());
+        callback.log(graph.summary());
+
+        return reporter.finish();
+    }
+}
@@ -0,0 +1,306 @@
+package com.extractor.output;
+
+import com.extractor.graph.DependencyGraph;
+import com.extractor.metrics.RunMetrics;
+import com.extractor.model.FieldData;
+import com.extractor.model.WriteStats;
+import com.extractor.ui.ProgressCallback;
+import com.extractor.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Writes each rendered formula to a separate .js file in organized folders.
+ * <p>
+ * Up to {@code parallelism} file writes run concurrently on virtual threads.
+ * Output is incremental: an {@link OutputManifest} in the root directory records
+ * a content hash per output file, files whose content is unchanged are not
+ * rewritten, and files that disappeared since the previous run are deleted.
+ * <p>
+ * Outputs that resolve to the same file are handled in list order by a single
+ * task, so the result on disk is identical to a sequential run. Files are
+ * always UTF-8, written through pooled {@link Utf8FileWriter} buffers.
+ * <p>
+ * A filtered run only produces part of the fields, so it neither deletes stale
+ * files nor rewrites the dependency graph: the manifest entries of fields it did
+ * not produce are carried forward and their files are left in place.
+ */
+public final class FolderOutput {
+
+    /**
+     * One output produced for a file.
+     *
+     * @param key     Manifest key
+     * @param content Renders the content into a builder (called on the writer thread)
+     */
+    private record Unit(String key, Consumer<StringBuilder> content) {
+    }
+
+    /**
+     * Logged by filtered runs, which keep the files of the fields they did not produce.
+     */
+    static final String FILTERED_RUN_NOTE = "Filter set: files of other fields are kept, stale files are not "
+            + "deleted and " + DependencyGraph.FILE_NAME + " is not updated";
+
+    /**
+     * Utility class — no instances allowed.
+     */
+    private FolderOutput() {
+    }
+
+    /**
+     * Writes all fields into {@code Header Fields/} and {@code Line Fields/} under the root.
+     *
+     * @param fields        List of parsed field data
+     * @param rootDir       Root output directory
+     * @param addComments   Flag to determine if comments should be added to each file
+     * @param parallelism   Maximum number of concurrent file writes (1 = sequential)
+     * @param shareFormulas Flag to write bodies used by several fields once to {@link SharedFormulas#DIR}
+     * @param filtered      Flag telling that the fields were selected by a filter, see the class documentation
+     * @param callback      Callback to report progress and logs
+     * @return Written/skipped/deleted counts of the run
+     */
+    public static WriteStats write(List<FieldData> fields, File rootDir, boolean addComments, int parallelism,
+                                   boolean shareFormulas, boolean filtered, ProgressCallback callback) {
+        Map<String, File> sections = sectionDirs(rootDir);
+
+        SharedFormulas shared = shareFormulas ? SharedFormulas.of(fields) : SharedFormulas.NONE;
+
+        // Group by target file to keep last-wins order for duplicated labels
+        Map<File, List<Unit>> byFile = new LinkedHashMap<>();
+        for (FieldData fd : fields) {
+            File jsFile = new File(sections.get(fd.section()), JsRenderer.fileName(fd));
+            SharedFormulas.Shared body = shared.get(fd.formula());
+            Consumer<StringBuilder> content = body == null
+                    ? sb -> JsRenderer.render(sb, fd, addComments)
+                    : sb -> JsRenderer.renderReference(sb, fd, addComments, body.referencePath());
+            byFile.computeIfAbsent(jsFile, _ -> new ArrayList<>(1)).add(new Unit(OutputManifest.key(fd), content));
+        }
+
+        if (!shared.isEmpty()) {
+            File sharedDir = new File(rootDir, SharedFormulas.DIR);
+            FileUtils.ensureDir(sharedDir);
+            for (SharedFormulas.Shared body : shared.all()) {
+                byFile.put(new File(sharedDir, body.fileName()), List.of(new Unit(
+                        SharedFormulas.DIR + "/" + body.id(),
+                        sb -> JsRenderer.renderShared(sb, body.formula(), body.users(), addComments))));
+            }
+        }
+
+        int total = byFile.values().stream().mapToInt(List::size).sum();
+        OutputManifest previous = OutputManifest.load(rootDir);
+        OutputManifest current = new OutputManifest();
+        ProgressReporter reporter = new ProgressReporter(total, callback);
+
+        if (parallelism <= 1) {
+            byFile.forEach((jsFile, units) -> writeGroup(rootDir, jsFile, units, previous, current, reporter));
+        } else {
+            Semaphore permits = new Semaphore(parallelism);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                byFile.forEach((jsFile, units) -> {
+                    permits.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            writeGroup(rootDir, jsFile, units, previous, current, reporter);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                });
+            }
+        }
+
+        if (filtered) {
+            Set<String> liveFiles = new HashSet<>();
+            current.entries().values().forEach(entry -> liveFiles.add(entry.file()));
+            keepPreviousEntries(previous, current, liveFiles);
+            callback.log(FILTERED_RUN_NOTE);
+        } else {
+            deleteStaleFiles(rootDir, previous, current, reporter);
+            exportGraph(fields, rootDir, reporter, callback);
+        }
+
+        try {
+            current.save(rootDir);
+        } catch (IOException e) {
+            reporter.error(OutputManifest.FILE_NAME + " → " + e.getMessage());
+        }
+
+        if (!shared.isEmpty()) callback.log(shared.summary());
+
+        return reporter.finish();
+    }
+
+    /**
+     * Creates the root directory and one subdirectory per section.
+     *
+     * @param rootDir Root output directory
+     * @return Section name → section directory
+     */
+    static Map<String, File> sectionDirs(File rootDir) {
+        FileUtils.ensureDir(rootDir);
+
+        // Define output subdirectories
+        Map<String, File> sections = Map.of(
+                "Header Fields", new File(rootDir, "Header Fields"),
+                "Line Fields", new File(rootDir, "Line Fields")
+        );
+        sections.values().forEach(FileUtils::ensureDir);
+        return sections;
+    }
+
+    /**
+     * Writes the {@link DependencyGraph} of the fields into the root directory.
+     *
+     * @param fields   All fields of the run
+     * @param rootDir  Root output directory
+     * @param reporter Progress reporter receiving a failure
+     * @param callback Callback receiving the graph summary
+     */
+    static void exportGraph(List<FieldData> fields, File rootDir, ProgressReporter reporter,
+                            ProgressCallback callback) {
+        DependencyGraph graph = DependencyGraph.of(fields);
+        try {
+            graph.export(new File(rootDir, DependencyGraph.FILE_NAME).toPath());
+            callback.log(graph.summary());
+        } catch (IOException e) {
+            reporter.error(DependencyGraph.FILE_NAME + " → " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes all outputs that resolve to the same file, unless every one of them
+     * is unchanged since the previous run and the file is still present.
+     *
+     * @param rootDir  Root output directory
+     * @param jsFile   Target file
+     * @param units    Outputs targeting the file, in list order
+     * @param previous Manifest of the previous run
+     * @param current  Manifest being built for this run
+     * @param reporter Progress reporter shared by all writer tasks
+     */
+    private static void writeGroup(File rootDir, File jsFile, List<Unit> units,
+                                   OutputManifest previous, OutputManifest current, ProgressReporter reporter) {
+        String relativePath = relativePath(rootDir, jsFile);
+
+        OutputManifest.Entry[] entries = new OutputManifest.Entry[units.size()];
+        boolean changed = !jsFile.isFile();
+        RunMetrics metrics = reporter.metrics();
+
+        try (Utf8FileWriter writer = Utf8FileWriter.acquire()) {
+            for (int i = 0; i < entries.length; i++) {
+                long start = System.nanoTime();
+                units.get(i).content().accept(writer.text());
+                writer.encode();
+                entries[i] = new OutputManifest.Entry(relativePath, writer.hash());
+                metrics.addRender(System.nanoTime() - start);
+                changed |= !entries[i].equals(previous.get(units.get(i).key()));
+            }
+
+            for (int i = 0; i < entries.length; i++) {
+                String key = units.get(i).key();
+
+                if (!changed) {
+                    current.put(key, entries[i]);
+                    reporter.skipped(relativePath);
+                    continue;
+                }
+
+                // The buffer holds the last unit's bytes; re-render when the file has several
+                if (entries.length > 1) {
+                    units.get(i).content().accept(writer.text());
+                    writer.encode();
+                }
+
+                try {
+                    writeFile(writer, jsFile, metrics);
+                    current.put(key, entries[i]);
+                    reporter.generated(relativePath);
+                } catch (IOException e) {
+                    reporter.failed(jsFile.getName() + " → " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the encoded content held by a writer to one output file, replacing
+     * an existing file, and records the write latency and size.
+     *
+     * @param writer  Writer holding the encoded content
+     * @param file    Target file
+     * @param metrics Metrics collector of the run
+     * @throws IOException if the file cannot be written
+     */
+    static void writeFile(Utf8FileWriter writer, File file, RunMetrics metrics) throws IOException {
+        long start = System.nanoTime();
+        writer.write(file.toPath());
+        metrics.recordWrite(writer.size(), System.nanoTime() - start);
+    }
+
+    /**
+     * Deletes files recorded in the previous manifest that no current output maps to.
+     *
+     * @param rootDir  Root output directory
+     * @param previous Manifest of the previous run
+     * @param current  Manifest of this run
+     * @param reporter Progress reporter
+     */
+    static void deleteStaleFiles(File rootDir, OutputManifest previous, OutputManifest current,
+                                 ProgressReporter reporter) {
+        Set<String> liveFiles = new HashSet<>();
+        current.entries().values().forEach(entry -> liveFiles.add(entry.file()));
+
+        Set<String> staleFiles = new TreeSet<>();
+        previous.entries().forEach((key, entry) -> {
+            OutputManifest.Entry now = current.get(key);
+            if ((now == null || !now.file().equals(entry.file())) && !liveFiles.contains(entry.file())) {
+                staleFiles.add(entry.file());
+            }
+        });
+
+        for (String stale : staleFiles) {
+            File file = new File(rootDir, stale);
+            if (!file.isFile()) continue;
+
+            if (file.delete()) {
+                reporter.deleted(stale);
+            } else {
+                reporter.error(stale + " → could not delete stale file");
+            }
+        }
+    }
+
+    /**
+     * Carries the previous entries of fields this run did not produce forward into
+     * the current manifest, so that their files are neither rewritten nor deleted later.
+     *
+     * @param previous     Manifest of the previous run
+     * @param current      Manifest of this run
+     * @param writtenFiles Relative paths holding content of this run; their previous entries are dropped
+     */
+    static void keepPreviousEntries(OutputManifest previous, OutputManifest current, Set<String> writtenFiles) {
+        previous.entries().forEach((key, entry) -> {
+            if (current.get(key) == null && !writtenFiles.contains(entry.file())) current.put(key, entry);
+        });
+    }
+
+    /**
+     * @return Path of the file relative to the root, with '/' separators
+     */
+    static String relativePath(File rootDir, File file) {
+        return rootDir.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+    }
+}
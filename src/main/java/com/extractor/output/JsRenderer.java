@@ -0,0 +1,150 @@
+package com.extractor.output;
+
+import com.extractor.model.FieldData;
+
+import java.util.List;
+
+/**
+ * Renders extracted fields into the content of a generated .js file.
+ * <p>
+ * Shared by every output mode, so the comment header and formula layout
+ * are identical no matter where the result is written.
+ */
+public final class JsRenderer {
+
+    /**
+     * Utility class — no instances allowed.
+     */
+    private JsRenderer() {
+    }
+
+    /**
+     * Renders the full file content for a field.
+     *
+     * @param fd          Field to render
+     * @param addComments Flag to determine if the metadata comment header should be added
+     * @return File content, always terminated by a line break
+     */
+    public static String render(FieldData fd, boolean addComments) {
+        StringBuilder sb = new StringBuilder(fd.formula().length() + 256);
+        render(sb, fd, addComments);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the full file content for a field to a (typically reused) builder.
+     *
+     * @param sb          Target builder
+     * @param fd          Field to render
+     * @param addComments Flag to determine if the metadata comment header should be added
+     */
+    public static void render(StringBuilder sb, FieldData fd, boolean addComments) {
+        if (addComments) appendHeader(sb, fd);
+
+        // The actual JS formula
+        appendFormula(sb, fd.formula());
+    }
+
+    /**
+     * Renders a field file whose body lives in a shared formula file.
+     *
+     * @param fd            Field to render
+     * @param addComments   Flag to determine if the metadata comment header should be added
+     * @param referencePath Path of the shared file relative to the field file
+     * @return File content, always terminated by a line break
+     */
+    public static String renderReference(FieldData fd, boolean addComments, String referencePath) {
+        StringBuilder sb = new StringBuilder(512);
+        renderReference(sb, fd, addComments, referencePath);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a field file whose body lives in a shared formula file.
+     *
+     * @param sb            Target builder
+     * @param fd            Field to render
+     * @param addComments   Flag to determine if the metadata comment header should be added
+     * @param referencePath Path of the shared file relative to the field file
+     */
+    public static void renderReference(StringBuilder sb, FieldData fd, boolean addComments, String referencePath) {
+        if (addComments) appendHeader(sb, fd);
+
+        sb.append("// Shared formula: ").append(referencePath).append('\n');
+    }
+
+    /**
+     * Renders a shared formula file.
+     *
+     * @param formula     Formula body
+     * @param users       Fields using the body
+     * @param addComments Flag to determine if the list of using fields should be added
+     * @return File content, always terminated by a line break
+     */
+    public static String renderShared(String formula, List<FieldData> users, boolean addComments) {
+        StringBuilder sb = new StringBuilder(formula.length() + 256);
+        renderShared(sb, formula, users, addComments);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a shared formula file.
+     *
+     * @param sb          Target builder
+     * @param formula     Formula body
+     * @param users       Fields using the body
+     * @param addComments Flag to determine if the list of using fields should be added
+     */
+    public static void renderShared(StringBuilder sb, String formula, List<FieldData> users, boolean addComments) {
+        if (addComments) {
+            sb.append("/**\n");
+            sb.append(" * Shared formula used by ").append(users.size()).append(" fields:\n");
+            for (FieldData fd : users) {
+                sb.append(" * \t\t").append(fd.section()).append(" / ").append(fd.fieldId()).append('\n');
+            }
+            sb.append(" */\n");
+            sb.append(" \n");
+        }
+
+        appendFormula(sb, formula);
+    }
+
+    /**
+     * Appends the header comment block with field metadata.
+     */
+    private static void appendHeader(StringBuilder sb, FieldData fd) {
+        sb.append("/**\n");
+        sb.append(" * Section: ").append(fd.section()).append('\n');
+        sb.append(" * FieldID: ").append(fd.fieldId()).append('\n');
+        sb.append(" * Label:   ").append(fd.label()).append('\n');
+        sb.append(" * Type:    ").append(fd.type()).append('\n');
+        sb.append(" * Trigger: ").append(fd.trigger()).append('\n');
+        sb.append(" * Participating Fields: ")
+                .append(fd.participatingFields().length == 0 ? "No Participating Fields \n" : "\n");
+
+        for (String participatingField : fd.participatingFields()) {
+            sb.append(" * \t\t").append(participatingField).append('\n');
+        }
+
+        sb.append(" */\n");
+        sb.append(" \n");
+    }
+
+    /**
+     * Appends the formula, terminated by a line break.
+     */
+    private static void appendFormula(StringBuilder sb, String formula) {
+        sb.append(formula);
+        if (!formula.endsWith("\n")) sb.append('\n');
+    }
+
+    /**
+     * Builds the file name used for a field.
+     *
+     * @param fd Field to name
+     * @return File name with .js extension
+     */
+    public static String fileName(FieldData fd) {
+        return fd.label() + ".js";
+    }
+}
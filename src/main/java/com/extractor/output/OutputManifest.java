@@ -0,0 +1,181 @@
+package com.extractor.output;
+
+import com.extractor.model.FieldData;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-hash manifest persisted in the output root.
+ * <p>
+ * Maps every extracted field ({@code section/FieldID}) to the file it was
+ * written to and a hash of the rendered content. On the next run unchanged
+ * fields are skipped and files of removed fields are deleted.
+ * <p>
+ * Instances are safe for concurrent {@link #put} calls from writer threads.
+ */
+public final class OutputManifest {
+
+    /**
+     * Manifest file name inside the output root.
+     */
+    public static final String FILE_NAME = ".extractor-manifest.json";
+
+    /**
+     * Current manifest format version.
+     */
+    private static final int VERSION = 1;
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+    /**
+     * Manifest entry for one field.
+     *
+     * @param file Output file path relative to the output root, using '/' separators
+     * @param hash Hex SHA-256 of the rendered file content
+     */
+    public record Entry(String file, String hash) {
+    }
+
+    /**
+     * On-disk representation.
+     *
+     * @param version Format version
+     * @param entries Entries keyed by {@code section/FieldID}
+     */
+    private record Stored(int version, Map<String, Entry> entries) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the manifest from the output root.
+     * <p>
+     * A missing, unreadable or incompatible manifest yields an empty one,
+     * which simply makes the next run write every file.
+     *
+     * @param rootDir Output root directory
+     * @return Loaded manifest (never {@code null})
+     */
+    public static OutputManifest load(File rootDir) {
+        OutputManifest manifest = new OutputManifest();
+        Path path = new File(rootDir, FILE_NAME).toPath();
+        if (!Files.isRegularFile(path)) return manifest;
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            Stored stored = GSON.fromJson(reader, Stored.class);
+            if (stored != null && stored.version() == VERSION && stored.entries() != null) {
+                stored.entries().forEach((key, entry) -> {
+                    if (key != null && entry != null && entry.file() != null && entry.hash() != null) {
+                        manifest.entries.put(key, entry);
+                    }
+                });
+            }
+        } catch (IOException | JsonParseException ignored) {
+            // Treat as no manifest
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest to the output root atomically (temp file + move).
+     *
+     * @param rootDir Output root directory
+     * @throws IOException if writing fails
+     */
+    public void save(File rootDir) throws IOException {
+        Path target = new File(rootDir, FILE_NAME).toPath();
+        Path tmp = new File(rootDir, FILE_NAME + ".tmp").toPath();
+
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            GSON.toJson(new Stored(VERSION, new TreeMap<>(entries)), writer);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @param key Field key from {@link #key(FieldData)}
+     * @return Entry for the key, or {@code null} if unknown
+     */
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Records the entry for a field.
+     *
+     * @param key   Field key from {@link #key(FieldData)}
+     * @param entry Entry to store
+     */
+    public void put(String key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    /**
+     * @return Live view of all entries keyed by {@code section/FieldID}
+     */
+    public Map<String, Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Builds the manifest key of a field.
+     *
+     * @param fd Field
+     * @return {@code section/FieldID}
+     */
+    public static String key(FieldData fd) {
+        return fd.section() + "/" + fd.fieldId();
+    }
+
+    /**
+     * Hashes rendered file content.
+     *
+     * @param content Rendered content
+     * @return Hex SHA-256 of the UTF-8 encoded content
+     */
+    public static String hash(String content) {
+        return HexFormat.of().formatHex(newDigest().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Hashes already encoded content with a reusable digest; equals
+     * {@link #hash(String)} of the same content.
+     *
+     * @param digest Digest from {@link #newDigest()}, reset by this method
+     * @param bytes  UTF-8 encoded content; position and limit are not changed
+     * @return Hex SHA-256 of the bytes
+     */
+    public static String hash(MessageDigest digest, ByteBuffer bytes) {
+        digest.reset();
+        digest.update(bytes.duplicate());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @return New digest for {@link #hash(MessageDigest, ByteBuffer)}
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
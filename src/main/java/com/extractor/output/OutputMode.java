@@ -0,0 +1,57 @@
+package com.extractor.output;
+
+import java.io.File;
+
+/**
+ * Output layout produced by an extraction run.
+ */
+public enum OutputMode {
+
+    /**
+     * One .js file per field under {@code Header Fields/} and {@code Line Fields/}.
+     */
+    FOLDER("Folder with .js files"),
+
+    /**
+     * Single ZIP archive with the same entries, deflate-compressed.
+     */
+    ZIP("ZIP archive"),
+
+    /**
+     * Single ZIP archive with stored (uncompressed) entries — fastest to write.
+     */
+    ZIP_STORED("ZIP archive (no compression)"),
+
+    /**
+     * One concatenated {@code Bundle.js} plus a byte-offset {@code Bundle.idx} in the output folder.
+     */
+    BUNDLE("Single .js bundle + index");
+
+    private final String displayName;
+
+    OutputMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Resolves the file or directory actually written for an output location.
+     *
+     * @param outDir Output location chosen by the user
+     * @return {@code <outDir>.zip} for archives, {@code outDir} itself otherwise
+     */
+    public File target(File outDir) {
+        return isArchive() ? new File(outDir.getPath() + ".zip") : outDir;
+    }
+
+    /**
+     * @return {@code true} if this mode writes a ZIP archive
+     */
+    public boolean isArchive() {
+        return this == ZIP || this == ZIP_STORED;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,134 @@
+package com.extractor.output;
+
+import com.extractor.metrics.RunMetrics;
+import com.extractor.model.WriteStats;
+import com.extractor.ui.ProgressCallback;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe progress bookkeeping shared by all output modes.
+ * <p>
+ * Counter increment and callback invocation happen under one lock,
+ * so progress values reach the callback in increasing order.
+ * <p>
+ * Progress is either the share of processed fields, or — when the number of
+ * fields is not known up front because they are written while the input is
+ * still being parsed — the share of input bytes consumed.
+ */
+public final class ProgressReporter {
+
+    private final long total;
+    private final LongSupplier position;
+    private final ProgressCallback callback;
+    private int processed;
+    private int written;
+    private int skipped;
+    private int deleted;
+    private int failed;
+
+    /**
+     * Creates a reporter for a run over {@code total} fields.
+     *
+     * @param total    Number of fields to process
+     * @param callback Callback to report progress and logs
+     */
+    public ProgressReporter(int total, ProgressCallback callback) {
+        this.total = total;
+        this.position = null;
+        this.callback = callback;
+    }
+
+    /**
+     * Creates a reporter measuring progress in input bytes consumed.
+     * Progress stays below 100% until {@link #finish()}.
+     *
+     * @param bytesRead  Current number of input bytes consumed
+     * @param totalBytes Input size in bytes
+     * @param callback   Callback to report progress and logs
+     */
+    public ProgressReporter(LongSupplier bytesRead, long totalBytes, ProgressCallback callback) {
+        this.total = totalBytes;
+        this.position = bytesRead;
+        this.callback = callback;
+    }
+
+    /**
+     * @return Metrics collector of the run (see {@link ProgressCallback#metrics()})
+     */
+    public RunMetrics metrics() {
+        return callback.metrics();
+    }
+
+    /**
+     * Records a field whose output was written.
+     *
+     * @param name Output name relative to the output root
+     */
+    public synchronized void generated(String name) {
+        written++;
+        processed++;
+        callback.log("Generated: " + name);
+        callback.update("Generated: " + name, percent());
+    }
+
+    /**
+     * Records a field skipped because its output was unchanged.
+     *
+     * @param name Output name relative to the output root
+     */
+    public synchronized void skipped(String name) {
+        skipped++;
+        processed++;
+        callback.update("Unchanged: " + name, percent());
+    }
+
+    /**
+     * Records a stale output file that was deleted.
+     *
+     * @param name Output name relative to the output root
+     */
+    public synchronized void deleted(String name) {
+        deleted++;
+        callback.log("Deleted: " + name);
+    }
+
+    /**
+     * Records a field that could not be written.
+     *
+     * @param message Output name and failure reason
+     */
+    public synchronized void failed(String message) {
+        failed++;
+        processed++;
+        callback.error("Failed: " + message);
+    }
+
+    /**
+     * Reports a failure not tied to a single field (manifest, cleanup, archive).
+     *
+     * @param message Failure description
+     */
+    public synchronized void error(String message) {
+        callback.error("Failed: " + message);
+    }
+
+    /**
+     * Logs the summary and completes the progress bar.
+     *
+     * @return Counters of the run
+     */
+    public synchronized WriteStats finish() {
+        WriteStats stats = new WriteStats(written, skipped, deleted, failed);
+        callback.log(stats.summary());
+        callback.update(stats.summary(), 100);
+        return stats;
+    }
+
+    private int percent() {
+        if (position != null) {
+            return total == 0 ? 99 : (int) Math.min(Math.min(position.getAsLong(), total) * 100.0 / total, 99);
+        }
+        return total == 0 ? 100 : (int) (Math.min(processed, total) * 100.0 / total);
+    }
+}
@@ -0,0 +1,129 @@
+package com.extractor.output;
+
+import com.extractor.model.FieldData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Formula bodies used by more than one field, addressed by content hash.
+ * <p>
+ * In folder output with formula sharing enabled, each such body is written
+ * once to {@code _shared/<hash>.js} and the per-field files reference it
+ * instead of repeating it.
+ */
+public final class SharedFormulas {
+
+    /**
+     * Folder holding shared formula bodies, relative to the output root.
+     */
+    public static final String DIR = "_shared";
+
+    /**
+     * Length of the hex content-hash prefix used as file name.
+     */
+    private static final int ID_LENGTH = 16;
+
+    /**
+     * A formula body shared by several fields.
+     *
+     * @param id      Content-hash id (hex prefix of SHA-256)
+     * @param formula Formula body
+     * @param users   Fields using this body, in list order
+     */
+    public record Shared(String id, String formula, List<FieldData> users) {
+
+        /**
+         * @return Shared file name
+         */
+        public String fileName() {
+            return id + ".js";
+        }
+
+        /**
+         * @return Path of the shared file relative to a section folder
+         */
+        public String referencePath() {
+            return "../" + DIR + "/" + fileName();
+        }
+    }
+
+    /**
+     * Instance without shared formulas.
+     */
+    public static final SharedFormulas NONE = new SharedFormulas(Map.of(), 0);
+
+    private final Map<String, Shared> byFormula;
+    private final int totalFields;
+
+    private SharedFormulas(Map<String, Shared> byFormula, int totalFields) {
+        this.byFormula = byFormula;
+        this.totalFields = totalFields;
+    }
+
+    /**
+     * Finds formula bodies used by at least two fields.
+     *
+     * @param fields List of parsed field data
+     * @return Shared formulas keyed by body content
+     */
+    public static SharedFormulas of(List<FieldData> fields) {
+        Map<String, List<FieldData>> users = new LinkedHashMap<>();
+        for (FieldData fd : fields) {
+            users.computeIfAbsent(fd.formula(), _ -> new ArrayList<>(1)).add(fd);
+        }
+
+        Map<String, Shared> byFormula = new HashMap<>();
+        users.forEach((formula, list) -> {
+            if (list.size() > 1) {
+                String id = OutputManifest.hash(formula).substring(0, ID_LENGTH);
+                byFormula.put(formula, new Shared(id, formula, List.copyOf(list)));
+            }
+        });
+
+        return new SharedFormulas(byFormula, fields.size());
+    }
+
+    /**
+     * @param formula Formula body
+     * @return Shared entry for the body, or {@code null} if it is used only once
+     */
+    public Shared get(String formula) {
+        return byFormula.get(formula);
+    }
+
+    /**
+     * @return All shared bodies
+     */
+    public Collection<Shared> all() {
+        return byFormula.values();
+    }
+
+    /**
+     * @return {@code true} if no body is shared
+     */
+    public boolean isEmpty() {
+        return byFormula.isEmpty();
+    }
+
+    /**
+     * @return Human-readable one-line summary with the dedup ratio
+     */
+    public String summary() {
+        int sharingFields = 0;
+        long savedChars = 0;
+        for (Shared shared : byFormula.values()) {
+            sharingFields += shared.users().size();
+            savedChars += (long) shared.formula().length() * (shared.users().size() - 1);
+        }
+
+        double ratio = totalFields == 0 ? 0 : (double) (sharingFields - byFormula.size()) / totalFields;
+        return String.format(Locale.ROOT, "Shared formulas: %d bodies for %d fields (dedup ratio %.1f%%, %.2f MB not written)",
+                byFormula.size(), sharingFields, ratio * 100, savedChars / (1024.0 * 1024.0));
+    }
+}
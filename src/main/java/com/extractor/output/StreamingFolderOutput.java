@@ -0,0 +1,275 @@
+package com.extractor.output;
+
+import com.extractor.model.FieldData;
+import com.extractor.model.WriteStats;
+import com.extractor.ui.ProgressCallback;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Folder output fed field by field while the input is still being parsed.
+ * <p>
+ * Produces the same files and manifest as {@link FolderOutput} without shared
+ * formulas, but starts writing as soon as the first field arrives. Fields are
+ * handed to writer threads through bounded queues; every target file belongs
+ * to exactly one writer (chosen by the file's hash), so fields with the same
+ * label are still written in input order and the last one wins. A full queue
+ * blocks the producer, which keeps memory bounded when the disk is slower
+ * than the parser.
+ * <p>
+ * A run can end early, when cancelled or when the producer fails. Files are
+ * always written whole, stale files are not deleted, and the saved manifest
+ * keeps the previous entries of fields that were not reached, so the folder
+ * stays consistent and the next run completes it incrementally. A filtered
+ * run is finalized the same way, since the fields it did not produce are
+ * neither stale nor part of a complete dependency graph.
+ */
+public final class StreamingFolderOutput {
+
+    /**
+     * Default number of fields buffered between parser and writers.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * How long the producer waits for queue space before re-checking cancellation.
+     */
+    private static final long OFFER_TIMEOUT_MS = 50;
+
+    /**
+     * A field together with its target file.
+     */
+    private record Task(FieldData field, File file) {
+    }
+
+    /**
+     * Marks the end of a writer queue.
+     */
+    private static final Task END = new Task(null, null);
+
+    private final File rootDir;
+    private final boolean addComments;
+    private final boolean filtered;
+    private final Map<String, File> sections;
+    private final BooleanSupplier cancelled;
+    private final ProgressCallback callback;
+    private final ProgressReporter reporter;
+    private final OutputManifest previous;
+    private final OutputManifest current = new OutputManifest();
+
+    /**
+     * Relative paths written during this run; consulted before skipping unchanged files.
+     */
+    private final Set<String> writtenFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Set when a writer discarded queued fields because the run was cancelled.
+     */
+    private final AtomicBoolean dropped = new AtomicBoolean();
+
+    private final List<BlockingQueue<Task>> queues;
+    private final List<Thread> writers;
+
+    /**
+     * Prepares the output folder and starts the writer threads.
+     *
+     * @param rootDir       Root output directory
+     * @param addComments   Flag to determine if comments should be added to each file
+     * @param parallelism   Number of writer threads
+     * @param queueCapacity Total number of fields buffered between producer and writers
+     * @param bytesRead     Input bytes consumed so far, used for progress
+     * @param totalBytes    Input size in bytes
+     * @param cancelled     Returns {@code true} once the run should stop
+     * @param filtered      Flag telling that the fields are selected by a filter
+     * @param callback      Callback to report progress and logs
+     */
+    public StreamingFolderOutput(File rootDir, boolean addComments, int parallelism, int queueCapacity,
+                                 LongSupplier bytesRead, long totalBytes, BooleanSupplier cancelled,
+                                 boolean filtered, ProgressCallback callback) {
+        this.rootDir = rootDir;
+        this.addComments = addComments;
+        this.filtered = filtered;
+        this.sections = FolderOutput.sectionDirs(rootDir);
+        this.cancelled = cancelled;
+        this.callback = callback;
+        this.reporter = new ProgressReporter(bytesRead, totalBytes, callback);
+        this.previous = OutputManifest.load(rootDir);
+
+        int writerCount = Math.max(1, parallelism);
+        int capacity = Math.max(1, queueCapacity / writerCount);
+
+        this.queues = new ArrayList<>(writerCount);
+        this.writers = new ArrayList<>(writerCount);
+        for (int i = 0; i < writerCount; i++) {
+            BlockingQueue<Task> queue = new ArrayBlockingQueue<>(capacity);
+            queues.add(queue);
+            writers.add(Thread.ofVirtual().name("folder-writer-" + i).start(() -> drain(queue)));
+        }
+    }
+
+    /**
+     * Queues a field for writing, blocking while the writer's queue is full.
+     *
+     * @param fd Parsed field
+     * @throws CancellationException if the run was cancelled
+     */
+    public void accept(FieldData fd) {
+        if (cancelled.getAsBoolean()) throw new CancellationException();
+
+        File jsFile = new File(sections.get(fd.section()), JsRenderer.fileName(fd));
+        BlockingQueue<Task> queue = queues.get(Math.floorMod(jsFile.hashCode(), queues.size()));
+        Task task = new Task(fd, jsFile);
+
+        try {
+            while (!queue.offer(task, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                if (cancelled.getAsBoolean()) throw new CancellationException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Waits for the writers and finalizes the folder.
+     * <p>
+     * After a complete unfiltered run stale files are deleted and the dependency
+     * graph is exported, as in {@link FolderOutput}. After an incomplete or filtered
+     * run only the manifest is saved, merged with the previous entries of the
+     * fields that were not written.
+     *
+     * @param fields   All fields handed to {@link #accept}
+     * @param complete Whether the producer delivered every field of the input
+     * @return Written/skipped/deleted counts of the run
+     */
+    public WriteStats finish(List<FieldData> fields, boolean complete) {
+        for (BlockingQueue<Task> queue : queues) {
+            putUninterruptibly(queue);
+        }
+        for (Thread writer : writers) {
+            joinUninterruptibly(writer);
+        }
+
+        boolean done = complete && !dropped.get() && !filtered;
+
+        if (done) {
+            FolderOutput.deleteStaleFiles(rootDir, previous, current, reporter);
+        } else {
+            FolderOutput.keepPreviousEntries(previous, current, writtenFiles);
+        }
+        if (filtered) callback.log(FolderOutput.FILTERED_RUN_NOTE);
+
+        try {
+            current.save(rootDir);
+        } catch (IOException e) {
+            reporter.error(OutputManifest.FILE_NAME + " → " + e.getMessage());
+        }
+
+        if (done) FolderOutput.exportGraph(fields, rootDir, reporter, callback);
+
+        return reporter.finish();
+    }
+
+    /**
+     * Writer loop: writes queued fields until the end marker arrives.
+     * Once cancelled, remaining fields are discarded so the producer never blocks.
+     */
+    private void drain(BlockingQueue<Task> queue) {
+        while (true) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                dropped.set(true);
+                return;
+            }
+
+            if (task == END) return;
+
+            if (cancelled.getAsBoolean()) {
+                dropped.set(true);
+                continue;
+            }
+
+            try {
+                write(task);
+            } catch (RuntimeException e) {
+                // e.g. a label that is not a valid file name on this platform
+                reporter.failed(task.file().getName() + " → " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes one field unless its file is unchanged since the previous run.
+     */
+    private void write(Task task) {
+        FieldData fd = task.field();
+        File jsFile = task.file();
+        String relativePath = FolderOutput.relativePath(rootDir, jsFile);
+        String key = OutputManifest.key(fd);
+
+        try (Utf8FileWriter writer = Utf8FileWriter.acquire()) {
+            long start = System.nanoTime();
+            JsRenderer.render(writer.text(), fd, addComments);
+            writer.encode();
+            OutputManifest.Entry entry = new OutputManifest.Entry(relativePath, writer.hash());
+            reporter.metrics().addRender(System.nanoTime() - start);
+
+            // A file already written in this run holds another field's content and must be overwritten
+            if (!writtenFiles.contains(relativePath) && entry.equals(previous.get(key)) && jsFile.isFile()) {
+                current.put(key, entry);
+                reporter.skipped(relativePath);
+                return;
+            }
+
+            writtenFiles.add(relativePath);
+            try {
+                FolderOutput.writeFile(writer, jsFile, reporter.metrics());
+                current.put(key, entry);
+                reporter.generated(relativePath);
+            } catch (IOException e) {
+                reporter.failed(jsFile.getName() + " → " + e.getMessage());
+            }
+        }
+    }
+
+    private static void putUninterruptibly(BlockingQueue<Task> queue) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(END);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+}
@@ -0,0 +1,144 @@
+package com.extractor.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Renders, encodes and writes output files through reused buffers.
+ * <p>
+ * Content is rendered into a reused {@link StringBuilder}, encoded to UTF-8
+ * once into a reused direct buffer, hashed from that buffer for the manifest
+ * and written with a single {@link FileChannel#write} — no intermediate
+ * Strings or byte arrays per file, and the same encoding on every platform.
+ * <p>
+ * Writers run on virtual threads that live for one task, so instances are
+ * pooled rather than thread-local: {@link #acquire()} takes a writer from the
+ * pool (or creates one) and {@link #close()} returns it. The pool never holds
+ * more writers than were in use at the same time.
+ */
+final class Utf8FileWriter implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    /**
+     * Buffers grown above this size are dropped after use instead of being pooled.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 4 << 20;
+
+    private static final Set<StandardOpenOption> WRITE_OPTIONS = Set.of(
+            StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    private static final ConcurrentLinkedQueue<Utf8FileWriter> POOL = new ConcurrentLinkedQueue<>();
+
+    private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final MessageDigest digest = OutputManifest.newDigest();
+
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private ByteBuffer bytes = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+
+    private Utf8FileWriter() {
+    }
+
+    /**
+     * @return Pooled writer; return it with {@link #close()}
+     */
+    static Utf8FileWriter acquire() {
+        Utf8FileWriter writer = POOL.poll();
+        return writer != null ? writer : new Utf8FileWriter();
+    }
+
+    /**
+     * @return Emptied builder to render the next file into
+     */
+    StringBuilder text() {
+        text.setLength(0);
+        return text;
+    }
+
+    /**
+     * Encodes the rendered text to UTF-8 into the reused buffer.
+     * Malformed surrogates become '?', as with {@link String#getBytes}.
+     *
+     * @return Number of encoded bytes
+     */
+    int encode() {
+        int length = text.length();
+        if (chars.length < length) chars = new char[Math.max(length, chars.length * 2)];
+        text.getChars(0, length, chars, 0);
+
+        // Fast path sized for mostly-ASCII content; grows to the worst case on overflow
+        ensureCapacity(length + (length >> 3) + 16);
+        while (true) {
+            CharBuffer in = CharBuffer.wrap(chars, 0, length);
+            bytes.clear();
+            encoder.reset();
+            CoderResult result = encoder.encode(in, bytes, true);
+            if (!result.isOverflow()) result = encoder.flush(bytes);
+            if (!result.isOverflow()) break;
+            ensureCapacity((int) Math.min((long) length * 3 + 16, Integer.MAX_VALUE));
+        }
+
+        bytes.flip();
+        return bytes.remaining();
+    }
+
+    /**
+     * @return Number of encoded bytes held by the writer
+     */
+    int size() {
+        return bytes.remaining();
+    }
+
+    /**
+     * @return Hex SHA-256 of the encoded bytes, equal to {@link OutputManifest#hash(String)} of the text
+     */
+    String hash() {
+        return OutputManifest.hash(digest, bytes);
+    }
+
+    /**
+     * Writes the encoded bytes to a file, replacing its content.
+     *
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        ByteBuffer content = bytes.duplicate();
+        try (FileChannel channel = FileChannel.open(file, WRITE_OPTIONS)) {
+            while (content.hasRemaining()) channel.write(content);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (bytes.capacity() >= capacity) return;
+        bytes = ByteBuffer.allocateDirect(Math.max(capacity, bytes.capacity() * 2));
+    }
+
+    /**
+     * Returns the writer to the pool.
+     */
+    @Override
+    public void close() {
+        if (bytes.capacity() > MAX_RETAINED_CAPACITY) bytes = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        if (chars.length > MAX_RETAINED_CAPACITY) chars = new char[INITIAL_CAPACITY];
+        if (text.capacity() > MAX_RETAINED_CAPACITY) {
+            text.setLength(0);
+            text.trimToSize();
+        }
+        POOL.offer(this);
+    }
+}
@@ -0,0 +1,23 @@
+package com.extractor.output;
+
+/**
+ * Options controlling how extracted formulas are written.
+ *
+ * @param mode          Output layout
+ * @param addComments   Flag to determine if the metadata comment header should be added
+ * @param parallelism   Maximum number of concurrent file writes (folder output only)
+ * @param shareFormulas Flag to write bodies used by several fields once to {@link SharedFormulas#DIR}
+ *                      (folder output only)
+ * @param parallelEntries Flag to extract the JSON entries of a ZIP input concurrently (ZIP inputs only)
+ * @param validate      Flag to syntax-check every formula and write a
+ *                      {@link com.extractor.validation.ValidationReport} next to the output
+ */
+public record WriteOptions(
+        OutputMode mode,
+        boolean addComments,
+        int parallelism,
+        boolean shareFormulas,
+        boolean parallelEntries,
+        boolean validate
+) {
+}
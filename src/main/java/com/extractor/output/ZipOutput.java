@@ -0,0 +1,116 @@
+package com.extractor.output;
+
+import com.extractor.graph.DependencyGraph;
+import com.extractor.model.FieldData;
+import com.extractor.model.WriteStats;
+import com.extractor.ui.ProgressCallback;
+import com.extractor.util.FileUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes all rendered formulas into a single ZIP archive.
+ * <p>
+ * Entries use the same layout as folder output ({@code Header Fields/…},
+ * {@code Line Fields/…}) and the same content as {@link JsRenderer}.
+ * Everything goes through one buffered {@link ZipOutputStream}, which avoids
+ * the per-file open/close cost of folder output. The archive is written to a
+ * temporary file and moved into place when complete.
+ */
+public final class ZipOutput {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Utility class — no instances allowed.
+     */
+    private ZipOutput() {
+    }
+
+    /**
+     * Writes the archive.
+     *
+     * @param fields      List of parsed field data
+     * @param zipFile     Target archive file
+     * @param addComments Flag to determine if comments should be added to each entry
+     * @param storeOnly   Flag to store entries without compression
+     * @param callback    Callback to report progress and logs
+     * @return Written counts of the run
+     * @throws IOException if the archive cannot be written (no partial archive is left behind)
+     */
+    public static WriteStats write(List<FieldData> fields, File zipFile, boolean addComments,
+                                   boolean storeOnly, ProgressCallback callback) throws IOException {
+        ProgressReporter reporter = new ProgressReporter(fields.size(), callback);
+
+        // Group by entry name: the last field wins, as with overwritten files in folder output
+        Map<String, List<FieldData>> byEntry = new LinkedHashMap<>();
+        for (FieldData fd : fields) {
+            byEntry.computeIfAbsent(fd.section() + "/" + JsRenderer.fileName(fd), _ -> new ArrayList<>()).add(fd);
+        }
+
+        DependencyGraph graph = DependencyGraph.of(fields);
+
+        File parent = zipFile.getAbsoluteFile().getParentFile();
+        if (parent != null) FileUtils.ensureDir(parent);
+        File tmp = new File(zipFile.getPath() + ".tmp");
+
+        try (ZipOutputStream zip = new ZipOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp.toPath()), BUFFER_SIZE),
+                StandardCharsets.UTF_8)) {
+
+            for (Map.Entry<String, List<FieldData>> e : byEntry.entrySet()) {
+                String name = e.getKey();
+                List<FieldData> group = e.getValue();
+                long start = System.nanoTime();
+                byte[] content = JsRenderer.render(group.getLast(), addComments).getBytes(StandardCharsets.UTF_8);
+                long rendered = System.nanoTime();
+                reporter.metrics().addRender(rendered - start);
+
+                writeEntry(zip, name, content, storeOnly);
+                reporter.metrics().recordWrite(content.length, System.nanoTime() - rendered);
+                group.forEach(_ -> reporter.generated(name));
+            }
+
+            writeEntry(zip, DependencyGraph.FILE_NAME, graph.render().getBytes(StandardCharsets.UTF_8), storeOnly);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp.toPath());
+            throw e;
+        }
+
+        Files.move(tmp.toPath(), zipFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        callback.log(graph.summary());
+        return reporter.finish();
+    }
+
+    /**
+     * Writes a single entry, precomputing size and CRC for stored entries.
+     */
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] content, boolean storeOnly) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+
+        if (storeOnly) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,248 @@
+package com.extractor.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Selection of the fields to extract, evaluated by {@link JsonFormulaParser} while it reads the JSON.
+ * <p>
+ * A filter is a whitespace-separated list of terms {@code [-]attribute:pattern}:
+ * <ul>
+ *     <li>{@code section} — {@code Header Fields} or {@code Line Fields}</li>
+ *     <li>{@code id} — FieldID</li>
+ *     <li>{@code label} — Label</li>
+ *     <li>{@code type} — Type</li>
+ *     <li>{@code trigger} — {@code CalculatedOn.Name}</li>
+ * </ul>
+ * Patterns are case-insensitive globs matching the whole value ({@code *} any run of
+ * characters, {@code ?} one character) and may be double-quoted to contain spaces.
+ * A field is kept if, for every attribute with include terms, it matches one of
+ * them, and it matches no exclude term ({@code -} prefix). For example
+ * {@code section:line* trigger:OnChange -id:TSATest*} keeps the line fields fired
+ * on change, except the test fields.
+ * <p>
+ * The parser checks each attribute as soon as it has been read: a rejected section
+ * is skipped as a whole, and the rest of a rejected field — its formula body and
+ * participating fields included — is skipped without building any strings.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class FieldFilter {
+
+    /**
+     * Shared empty pattern array; declared before {@link #ALL}, whose constructor uses it.
+     */
+    private static final Pattern[] NONE = new Pattern[0];
+
+    /**
+     * Filter keeping every field.
+     */
+    public static final FieldFilter ALL = new FieldFilter(List.of());
+
+    /**
+     * Short description of the filter syntax, for help texts and tooltips.
+     */
+    public static final String SYNTAX = "[-]section|id|label|type|trigger:pattern ... "
+            + "(globs with * and ?, case-insensitive; - excludes)";
+
+    /**
+     * Field attribute a term tests.
+     */
+    public enum Attribute {
+        SECTION("section"),
+        FIELD_ID("id"),
+        LABEL("label"),
+        TYPE("type"),
+        TRIGGER("trigger");
+
+        private final String key;
+
+        Attribute(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return Name of the attribute in filter terms
+         */
+        public String key() {
+            return key;
+        }
+
+        private static Attribute of(String key) {
+            for (Attribute attribute : values()) {
+                if (attribute.key.equalsIgnoreCase(key)) return attribute;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One parsed term.
+     */
+    private record Term(Attribute attribute, boolean exclude, String glob) {
+
+        @Override
+        public String toString() {
+            String pattern = glob.chars().anyMatch(Character::isWhitespace) ? '"' + glob + '"' : glob;
+            return (exclude ? "-" : "") + attribute.key() + ":" + pattern;
+        }
+    }
+
+    private final List<Term> terms;
+
+    /**
+     * Include patterns per {@link Attribute#ordinal()}
+     */
+    private final Pattern[][] includes = new Pattern[Attribute.values().length][];
+
+    /**
+     * Exclude patterns per {@link Attribute#ordinal()}
+     */
+    private final Pattern[][] excludes = new Pattern[Attribute.values().length][];
+
+    private FieldFilter(List<Term> terms) {
+        this.terms = terms;
+        for (Attribute attribute : Attribute.values()) {
+            includes[attribute.ordinal()] = patterns(terms, attribute, false);
+            excludes[attribute.ordinal()] = patterns(terms, attribute, true);
+        }
+    }
+
+    /**
+     * Parses a filter specification.
+     *
+     * @param spec Terms as described in the class documentation; {@code null} or blank keeps every field
+     * @return Parsed filter
+     * @throws IllegalArgumentException if a term has no known attribute or no pattern, or a quote is not closed
+     */
+    public static FieldFilter parse(String spec) {
+        if (spec == null || spec.isBlank()) return ALL;
+
+        List<Term> terms = new ArrayList<>();
+        for (String token : split(spec)) {
+            boolean exclude = token.startsWith("-");
+            String term = exclude ? token.substring(1) : token;
+            int colon = term.indexOf(':');
+            Attribute attribute = colon > 0 ? Attribute.of(term.substring(0, colon)) : null;
+            if (attribute == null) {
+                throw new IllegalArgumentException("Invalid filter term \"" + token + "\", expected "
+                        + "section|id|label|type|trigger:pattern");
+            }
+            String glob = unquote(term.substring(colon + 1));
+            if (glob.isEmpty()) throw new IllegalArgumentException("Missing pattern in filter term \"" + token + "\"");
+            terms.add(new Term(attribute, exclude, glob));
+        }
+        return new FieldFilter(List.copyOf(terms));
+    }
+
+    /**
+     * @return {@code true} if the filter keeps every field
+     */
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    /**
+     * Checks a single attribute, as soon as its value is known.
+     *
+     * @param attribute Attribute that has been read
+     * @param value     Its value
+     * @return {@code true} if no field with this value can be kept
+     */
+    public boolean rejects(Attribute attribute, String value) {
+        Pattern[] include = includes[attribute.ordinal()];
+        Pattern[] exclude = excludes[attribute.ordinal()];
+        if (include.length == 0 && exclude.length == 0) return false;
+        return (include.length > 0 && !matchesAny(include, value)) || matchesAny(exclude, value);
+    }
+
+    /**
+     * Checks a complete field.
+     *
+     * @return {@code true} if the field is kept
+     */
+    public boolean accepts(String section, String fieldId, String label, String type, String trigger) {
+        return !rejects(Attribute.SECTION, section)
+                && !rejects(Attribute.FIELD_ID, fieldId)
+                && !rejects(Attribute.LABEL, label)
+                && !rejects(Attribute.TYPE, type)
+                && !rejects(Attribute.TRIGGER, trigger);
+    }
+
+    /**
+     * @return Stable identifier of the filter's terms, e.g. to tell cached results of different filters apart
+     */
+    public String fingerprint() {
+        return UUID.nameUUIDFromBytes(toString().getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * @return Normalized specification, parseable by {@link #parse}
+     */
+    @Override
+    public String toString() {
+        return String.join(" ", terms.stream().map(Term::toString).toList());
+    }
+
+    private static boolean matchesAny(Pattern[] patterns, String value) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(value).matches()) return true;
+        }
+        return false;
+    }
+
+    private static Pattern[] patterns(List<Term> terms, Attribute attribute, boolean exclude) {
+        Pattern[] patterns = terms.stream()
+                .filter(t -> t.attribute() == attribute && t.exclude() == exclude)
+                .map(t -> globPattern(t.glob()))
+                .toArray(Pattern[]::new);
+        return patterns.length == 0 ? NONE : patterns;
+    }
+
+    /**
+     * Translates a glob into a case-insensitive regular expression.
+     */
+    private static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) regex.append(Pattern.quote(literal.toString()));
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+    }
+
+    /**
+     * Splits a specification at whitespace outside double quotes.
+     */
+    private static List<String> split(String spec) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        for (char c : spec.toCharArray()) {
+            if (c == '"') quoted = !quoted;
+            if (Character.isWhitespace(c) && !quoted) {
+                if (!token.isEmpty()) tokens.add(token.toString());
+                token.setLength(0);
+            } else {
+                token.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unclosed quote in filter: " + spec);
+        if (!token.isEmpty()) tokens.add(token.toString());
+        return tokens;
+    }
+
+    private static String unquote(String pattern) {
+        return pattern.replace("\"", "");
+    }
+}
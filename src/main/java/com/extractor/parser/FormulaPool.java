@@ -0,0 +1,174 @@
+package com.extractor.parser;
+
+import java.util.Locale;
+
+/**
+ * Deduplication statistics of formula bodies.
+ * <p>
+ * Every formula read by {@link JsonFormulaParser} is counted here. Bodies are
+ * told apart by a 64-bit content hash kept with the body length in an
+ * open-addressing table, so the pool holds a few bytes per distinct body
+ * rather than the body itself and streaming parses retain no formula text.
+ * Canonical instances are owned by the callers that collect fields, see
+ * {@link com.extractor.model.FieldStore}.
+ * <p>
+ * A pool that only sums up the statistics of other pools holds no hashes at
+ * all, see {@link #addStats}.
+ * <p>
+ * Not thread-safe: a pool belongs to a single parser.
+ */
+public final class FormulaPool {
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    /**
+     * Open-addressing table of body hashes, sized to a power of two; 0 marks an empty slot.
+     */
+    private long[] slots = new long[INITIAL_SLOTS];
+
+    /**
+     * Body length of the hash in the same slot of {@link #slots}.
+     */
+    private int[] lengths = new int[INITIAL_SLOTS];
+    private int hashCount;
+
+    private long total;
+    private long distinct;
+    private long totalChars;
+    private long distinctChars;
+
+    /**
+     * Counts a formula body.
+     *
+     * @param formula Formula body as read from JSON
+     */
+    public void add(String formula) {
+        total++;
+        totalChars += formula.length();
+        addHash(hash(formula), formula.length());
+    }
+
+    /**
+     * Adds the bodies and counters of another pool, as if its formulas had been counted here.
+     * Used to combine pools of inputs parsed concurrently; not thread-safe.
+     *
+     * @param other Pool to add
+     */
+    public void merge(FormulaPool other) {
+        // A pool holding statistics only has no hashes to compare
+        if (other.hashCount < other.distinct) {
+            addStats(other);
+            return;
+        }
+        total += other.total;
+        totalChars += other.totalChars;
+        for (int i = 0; i < other.slots.length; i++) {
+            if (other.slots[i] != 0) addHash(other.slots[i], other.lengths[i]);
+        }
+    }
+
+    /**
+     * Adds the counters of another pool without taking over its hashes. Bodies are
+     * not compared across the two pools, so one present in both counts as distinct twice.
+     * Used to total the pools of the definitions of one input; not thread-safe.
+     *
+     * @param other Pool to add
+     */
+    public void addStats(FormulaPool other) {
+        total += other.total;
+        distinct += other.distinct;
+        totalChars += other.totalChars;
+        distinctChars += other.distinctChars;
+    }
+
+    /**
+     * @return Number of formulas seen
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * @return Number of distinct formula bodies
+     */
+    public int distinct() {
+        return (int) distinct;
+    }
+
+    /**
+     * @return Characters in bodies that repeat an earlier body
+     */
+    public long duplicateChars() {
+        return totalChars - distinctChars;
+    }
+
+    /**
+     * @return Share of formulas that were duplicates of an earlier body (0–1)
+     */
+    public double dedupRatio() {
+        return total == 0 ? 0 : 1.0 - (double) distinct / total;
+    }
+
+    /**
+     * @return Human-readable one-line summary
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, "Formulas: %d total, %d distinct (%.1f%% duplicates, %.2f MB duplicated)",
+                total, distinct, dedupRatio() * 100, duplicateChars() * 2 / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Adds a body hash to the table, counting it as distinct if it was not present yet.
+     */
+    private void addHash(long hash, int length) {
+        int mask = slots.length - 1;
+        int slot = spread(hash) & mask;
+        while (slots[slot] != 0) {
+            if (slots[slot] == hash) return;
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = hash;
+        lengths[slot] = length;
+        hashCount++;
+        distinct++;
+        distinctChars += length;
+        // Keep the load factor at or below 1/2
+        if (hashCount * 2 > slots.length) rehash();
+    }
+
+    private void rehash() {
+        long[] table = new long[slots.length * 2];
+        int[] tableLengths = new int[table.length];
+        int mask = table.length - 1;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == 0) continue;
+            int slot = spread(slots[i]) & mask;
+            while (table[slot] != 0) slot = (slot + 1) & mask;
+            table[slot] = slots[i];
+            tableLengths[slot] = lengths[i];
+        }
+        slots = table;
+        lengths = tableLengths;
+    }
+
+    /**
+     * Folds the high bits into the low ones, which select the slot.
+     */
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units of a body, never 0. Collisions are
+     * negligible for the number of distinct bodies a definition holds and would only
+     * understate the distinct count.
+     */
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+}
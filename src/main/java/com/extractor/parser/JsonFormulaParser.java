@@ -1,30 +1,134 @@
 package com.extractor.parser;
 
 import com.extractor.model.FieldData;
+import com.extractor.model.FieldStore;
+import com.extractor.model.WriteStats;
+import com.extractor.output.BundleIndex;
+import com.extractor.output.BundleOutput;
+import com.extractor.output.FolderOutput;
+import com.extractor.output.OutputMode;
+import com.extractor.output.WriteOptions;
+import com.extractor.output.ZipOutput;
 import com.extractor.ui.ProgressCallback;
-import com.extractor.util.FileUtils;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.extractor.validation.ValidationReport;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Parses Pepperi JSON transaction definitions and extracts JavaScript formulas
  * from calculated fields. Supports both Header and Line fields.
+ * <p>
+ * Parsing is streaming: the input is read token by token with Gson's
+ * {@link JsonReader}, every sub-tree that is not needed (layouts, UI and
+ * config sections, unused field attributes) is skipped without being
+ * materialized, and each {@link FieldData} is emitted as soon as its field
+ * object has been read.
+ * <p>
+ * Inputs holding several definitions — a top-level array or newline-delimited
+ * JSON — are streamed one definition at a time by {@link #parseDefinitions}.
+ * <p>
+ * A {@link FieldFilter} is pushed down into the reading loop: fields it rejects
+ * are skipped as soon as a tested attribute is known, before their formula
+ * bodies are read.
  */
 public class JsonFormulaParser {
+
+    /**
+     * One definition of a multi-definition input.
+     *
+     * @param index       1-based position of the definition in the input
+     * @param name        Value of the definition's {@code Name}, or {@code null} if absent
+     * @param fields      Extracted fields of the definition
+     * @param formulaPool Deduplication statistics of the definition's formula bodies
+     */
+    public record Definition(int index, String name, List<FieldData> fields, FormulaPool formulaPool) {
+    }
+
+    /**
+     * Receiver of the definitions streamed by {@link #parseDefinitions}.
+     */
+    @FunctionalInterface
+    public interface DefinitionSink {
+        /**
+         * Processes one definition.
+         *
+         * @param definition Definition that has just been read
+         * @throws IOException if the definition cannot be written
+         */
+        void accept(Definition definition) throws IOException;
+    }
+
+    /**
+     * Shared empty array for fields without participating fields
+     */
+    private static final String[] NO_PARTICIPATING_FIELDS = new String[0];
+
+    /**
+     * Fields to extract; the others are skipped while reading
+     */
+    private final FieldFilter filter;
+
     /**
      * List to collect all extracted field data during parsing
      */
-    private final List<FieldData> fieldDataList = new ArrayList<>();
+    private final FieldStore fieldDataList = new FieldStore();
+
+    /**
+     * Deduplication statistics of a single-definition parse;
+     * for multi-definition inputs the totals of the per-definition pools
+     */
+    private final FormulaPool formulaPool = new FormulaPool();
+
+    /**
+     * Pool formula bodies are counted in: {@link #formulaPool}, or the pool of the definition being read
+     */
+    private FormulaPool countPool = formulaPool;
+
+    /**
+     * Number of field objects seen, with or without a formula
+     */
+    private long fieldsScanned;
+
+    /**
+     * Number of fields skipped because of the filter
+     */
+    private long fieldsFiltered;
+
+    /**
+     * Whether a single-definition parse found further definition objects after the first one
+     */
+    private boolean trailingDefinitions;
+
+    /**
+     * Creates a parser extracting every calculated field.
+     */
+    public JsonFormulaParser() {
+        this(FieldFilter.ALL);
+    }
+
+    /**
+     * Creates a parser extracting only the calculated fields kept by a filter.
+     *
+     * @param filter Fields to extract, checked while reading
+     */
+    public JsonFormulaParser(FieldFilter filter) {
+        this.filter = filter;
+    }
 
     /**
      * Parses the input JSON string and extracts all fields with JSFormula.
@@ -33,123 +137,459 @@ public class JsonFormulaParser {
      * @return List of {@link FieldData} containing formula and metadata
      */
     public List<FieldData> parse(String jsonContent) {
-        JsonObject root = JsonParser.parseString(jsonContent).getAsJsonObject();
+        try {
+            return parse(new StringReader(jsonContent));
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
 
-        // Process both "Fields" (header) and "LineFields" (line items)
-        processSection(root, "Fields");
-        processSection(root, "LineFields");
+    /**
+     * Parses JSON from a UTF-8 encoded stream and extracts all fields with JSFormula.
+     *
+     * @param in Input stream with the JSON definition (not closed by this method)
+     * @return List of {@link FieldData} containing formula and metadata
+     * @throws IOException if reading fails or the JSON is malformed
+     */
+    public List<FieldData> parse(InputStream in) throws IOException {
+        return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
 
+    /**
+     * Parses JSON from a reader and extracts all fields with JSFormula.
+     * The returned {@link FieldStore} holds one canonical instance of each
+     * distinct string, so fields that share a formula body share one instance.
+     *
+     * @param reader Reader with the JSON definition (not closed by this method)
+     * @return List of {@link FieldData} containing formula and metadata
+     * @throws IOException if reading fails or the JSON is malformed
+     */
+    public List<FieldData> parse(Reader reader) throws IOException {
+        parse(reader, fieldDataList::add);
         return fieldDataList;
     }
 
     /**
-     * Processes a specific section (Fields or LineFields) from the JSON root.
+     * Streams JSON from a reader and hands every extracted field to the sink
+     * as soon as it has been read. The parser retains no formula bodies: its
+     * {@link #formulaPool()} only counts them by hash, so memory stays flat
+     * unless the sink collects the fields.
      *
-     * @param root     Root JSON object
-     * @param arrayKey Key name of the array to process ("Fields" or "LineFields")
+     * @param reader Reader with the JSON definition (not closed by this method)
+     * @param sink   Consumer receiving each extracted {@link FieldData}
+     * @throws IOException if reading fails or the JSON is malformed
      */
-    private void processSection(JsonObject root, String arrayKey) {
-        JsonArray array = root.getAsJsonArray(arrayKey);
-
-        String section = arrayKey.equals("LineFields") ? "Line Fields" : "Header Fields";
-
-        // Skip if section doesn't exist
-        if (array == null) return;
+    public void parse(Reader reader, Consumer<FieldData> sink) throws IOException {
+        JsonReader in = new JsonReader(reader);
+        in.setLenient(true);
+        readDefinition(in, sink);
 
-        for (JsonElement el : array) {
-            JsonObject field = el.getAsJsonObject();
+        try {
+            trailingDefinitions = in.peek() == JsonToken.BEGIN_OBJECT;
+        } catch (IOException e) {
+            // Trailing garbage after the definition is ignored, as before
+        }
+    }
 
-            JsonElement creElement = field.get("CalculatedRuleEngine");
+    /**
+     * Streams an input holding several definitions, either as one top-level
+     * JSON array or as newline-delimited JSON (one definition object per line),
+     * and hands each definition to the sink as soon as its object has been read.
+     * <p>
+     * Only the fields of the definition being read are held, in a {@link FieldStore}
+     * that keeps each distinct formula body once and is dropped once the sink has
+     * returned, so memory stays bounded by the largest single definition rather
+     * than by the whole input.
+     *
+     * @param reader Reader with the definitions (not closed by this method)
+     * @param sink   Receiver of each definition, called in input order
+     * @throws IOException if reading fails, the JSON is malformed or the sink fails
+     */
+    public void parseDefinitions(Reader reader, DefinitionSink sink) throws IOException {
+        JsonReader in = new JsonReader(reader);
+        // Lenient mode also accepts several top-level values, which is what NDJSON is
+        in.setLenient(true);
 
-            // Skip if no calculation rule
-            if (creElement.isJsonNull()) continue;
+        boolean array = in.peek() == JsonToken.BEGIN_ARRAY;
+        if (array) in.beginArray();
 
-            JsonObject cre = creElement.getAsJsonObject();
+        int index = 0;
+        while (array ? in.hasNext() : in.peek() != JsonToken.END_DOCUMENT) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
 
-            // Must have JSFormula
-            if (cre == null || !cre.has("JSFormula")) continue;
+            FieldStore fields = new FieldStore();
+            FormulaPool definitionPool = new FormulaPool();
+            countPool = definitionPool;
+            String name = readDefinition(in, fields::add);
+            formulaPool.addStats(definitionPool);
+            sink.accept(new Definition(++index, name, fields, definitionPool));
+        }
+        countPool = formulaPool;
+        if (array) in.endArray();
+    }
 
-            String formula = cre.get("JSFormula").getAsString().trim();
-            if (formula.isEmpty()) continue;
+    /**
+     * Checks whether an input starts with a top-level JSON array, i.e. holds several definitions.
+     * Consumes only leading whitespace; the first significant character is pushed back.
+     *
+     * @param reader Reader positioned at the beginning of the input
+     * @return {@code true} if the first non-whitespace character is {@code [}
+     * @throws IOException if reading fails
+     */
+    public static boolean startsWithArray(PushbackReader reader) throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && (Character.isWhitespace(c) || c == '\uFEFF'));
+        if (c != -1) reader.unread(c);
+        return c == '[';
+    }
 
-            // Extract required field metadata
-            String fieldId = field.get("FieldID").getAsString();
-            String label = field.has("Label") ? field.get("Label").getAsString() : "No Label";
-            String type = field.has("Type") ? field.get("Type").getAsString() : "Unknown";
+    /**
+     * Reads one definition object at the current reader position.
+     *
+     * @param in   Reader positioned at the definition object
+     * @param sink Consumer receiving each extracted field
+     * @return Value of the definition's {@code Name}, or {@code null} if absent
+     */
+    private String readDefinition(JsonReader in, Consumer<FieldData> sink) throws IOException {
+        String name = null;
 
-            JsonElement participatingFieldsJsonElement = cre.get("ParticipatingFields");
+        in.beginObject();
+        while (in.hasNext()) {
+            // Process both "Fields" (header) and "LineFields" (line items), skip everything else
+            switch (in.nextName()) {
+                case "Name" -> name = nextString(in);
+                case "Fields" -> processSection(in, "Header Fields", sink);
+                case "LineFields" -> processSection(in, "Line Fields", sink);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return name;
+    }
 
-            String[] participatingFields = participatingFieldsJsonElement == null
-                    ? new String[0]
-                    : participatingFieldsJsonElement.getAsJsonArray().asList().stream().map(JsonElement::getAsString).toArray(String[]::new);
+    /**
+     * Processes a specific section (Fields or LineFields) at the current reader position.
+     *
+     * @param in      Reader positioned at the section array
+     * @param section Section name used for output ("Header Fields" or "Line Fields")
+     * @param sink    Consumer receiving each extracted field
+     */
+    private void processSection(JsonReader in, String section, Consumer<FieldData> sink) throws IOException {
+        // Skip if section is not an array, or filtered out as a whole
+        if (in.peek() != JsonToken.BEGIN_ARRAY || filter.rejects(FieldFilter.Attribute.SECTION, section)) {
+            in.skipValue();
+            return;
+        }
 
-            // Trigger is nested under CalculatedOn.Name
-            String trigger = cre.getAsJsonObject("CalculatedOn").get("Name").getAsString();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
 
-            // Store full field JSON for context/debugging
-            fieldDataList.add(new FieldData(section, fieldId, label, type, trigger, formula, participatingFields));
+            fieldsScanned++;
+            FieldData fd = readField(in, section);
+            if (fd != null) sink.accept(fd);
         }
+        in.endArray();
     }
 
     /**
-     * Writes each extracted formula to a separate .js file in organized folders.
+     * Reads a single field object and extracts its formula and metadata.
+     * <p>
+     * Each filtered attribute is checked as soon as it has been read; once the field
+     * is rejected, its remaining values — formula body included — are skipped unread.
      *
-     * @param fields      List of parsed field data
-     * @param rootDir     Root output directory
-     * @param addComments Flag to determine if comments should be added to the file
-     * @param callback    Callback to report progress and logs
+     * @param in      Reader positioned at the field object
+     * @param section Section name of the field
+     * @return Extracted field, or {@code null} if the field has no JSFormula or is filtered out
      */
-    public void writeJsFiles(List<FieldData> fields, File rootDir, boolean addComments, ProgressCallback callback) {
-        FileUtils.ensureDir(rootDir);
-
-        // Define output subdirectories
-        Map<String, File> sections = Map.of(
-                "Header Fields", new File(rootDir, "Header Fields"),
-                "Line Fields", new File(rootDir, "Line Fields")
-        );
-        sections.values().forEach(FileUtils::ensureDir);
-
-        int total = fields.size();
-        int processed = 0;
-
-        for (FieldData fd : fields) {
-            // Heuristic to determine if field belongs to Line or Header
-            String section = fd.section();
-            File dir = sections.get(section);
-            File jsFile = new File(dir, fd.label() + ".js");
-
-            try (BufferedWriter w = new BufferedWriter(new FileWriter(jsFile))) {
-
-                if (addComments) {
-                    // Write header comment block with metadata
-                    w.write("/**\n");
-                    w.write(" * Section: " + section + "\n");
-                    w.write(" * FieldID: " + fd.fieldId() + "\n");
-                    w.write(" * Label:   " + fd.label() + "\n");
-                    w.write(" * Type:    " + fd.type() + "\n");
-                    w.write(" * Trigger: " + fd.trigger() + "\n");
-                    w.write(" * Participating Fields: " + (fd.participatingFields().length == 0 ? "No Participating Fields \n" : "\n"));
-
-                    for (String participatingField : fd.participatingFields()) {
-                        w.write(" * \t\t" + participatingField + "\n");
+    private FieldData readField(JsonReader in, String section) throws IOException {
+        String fieldId = null;
+        String label = null;
+        String type = null;
+        String formula = null;
+        String trigger = null;
+        String[] participatingFields = NO_PARTICIPATING_FIELDS;
+        boolean rejected = false;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (rejected) {
+                in.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "FieldID" -> {
+                    fieldId = nextString(in);
+                    rejected = rejects(FieldFilter.Attribute.FIELD_ID, fieldId);
+                }
+                case "Label" -> {
+                    label = nextString(in);
+                    rejected = rejects(FieldFilter.Attribute.LABEL, label);
+                }
+                case "Type" -> {
+                    type = nextString(in);
+                    rejected = rejects(FieldFilter.Attribute.TYPE, type);
+                }
+                case "CalculatedRuleEngine" -> {
+                    // Skip if no calculation rule
+                    if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                        in.skipValue();
+                        continue;
                     }
 
-                    w.write(" */\n");
-                    w.write(" \n");
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String ruleName = in.nextName();
+                        if (rejected) {
+                            in.skipValue();
+                            continue;
+                        }
+                        switch (ruleName) {
+                            case "JSFormula" -> formula = nextString(in);
+                            case "ParticipatingFields" -> participatingFields = readStringArray(in);
+                            // Trigger is nested under CalculatedOn.Name
+                            case "CalculatedOn" -> {
+                                trigger = readTrigger(in);
+                                rejected = rejects(FieldFilter.Attribute.TRIGGER, trigger);
+                            }
+                            default -> in.skipValue();
+                        }
+                    }
+                    in.endObject();
                 }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (rejected) {
+            fieldsFiltered++;
+            return null;
+        }
+
+        // Must have non-empty JSFormula
+        if (formula == null) return null;
+        formula = formula.trim();
+        if (formula.isEmpty()) return null;
+
+        if (fieldId == null) {
+            throw new JsonParseException("Calculated field without FieldID at " + in.getPath());
+        }
+
+        label = label != null ? label : "No Label";
+        type = type != null ? type : "Unknown";
+        trigger = trigger != null ? trigger : "Unknown";
+        // Attributes missing from the JSON are checked with their defaults
+        if (!filter.accepts(section, fieldId, label, type, trigger)) {
+            fieldsFiltered++;
+            return null;
+        }
+
+        countPool.add(formula);
+
+        return new FieldData(section, fieldId, label, type, trigger, formula, participatingFields);
+    }
+
+    /**
+     * @return {@code true} if a value that has been read rejects the field
+     */
+    private boolean rejects(FieldFilter.Attribute attribute, String value) {
+        return value != null && filter.rejects(attribute, value);
+    }
+
+    /**
+     * @return Number of field objects read from the Fields/LineFields sections,
+     * including those without a formula
+     */
+    public long fieldsScanned() {
+        return fieldsScanned;
+    }
+
+    /**
+     * @return Number of fields skipped because of the filter; fields of a section
+     * filtered out as a whole are not counted
+     */
+    public long fieldsFiltered() {
+        return fieldsFiltered;
+    }
 
-                // Write the actual JS formula
-                w.write(fd.formula());
-                if (!fd.formula().endsWith("\n")) w.write("\n");
+    /**
+     * @return {@code true} if {@link #parse(Reader, Consumer)} stopped at the end of the first
+     * definition while more definition objects followed (NDJSON read as a single definition)
+     */
+    public boolean hasTrailingDefinitions() {
+        return trailingDefinitions;
+    }
 
-                processed++;
-                int progress = (int) (processed * 100.0 / total);
-                callback.log("Generated: " + section + "/" + jsFile.getName());
-                callback.update("Generated: " + section + "/" + jsFile.getName(), progress);
+    /**
+     * @return Deduplication statistics of the formula bodies read; after
+     * {@link #parseDefinitions} the summed statistics of all definitions
+     */
+    public FormulaPool formulaPool() {
+        return formulaPool;
+    }
+
+    /**
+     * Reads the {@code Name} of a {@code CalculatedOn} object.
+     *
+     * @param in Reader positioned at the CalculatedOn value
+     * @return Trigger name, or {@code null} if absent
+     */
+    private static String readTrigger(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            in.skipValue();
+            return null;
+        }
 
-            } catch (IOException e) {
-                callback.log("Failed: " + jsFile.getName() + " → " + e.getMessage());
+        String name = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("Name")) {
+                name = nextString(in);
+            } else {
+                in.skipValue();
             }
         }
+        in.endObject();
+        return name;
+    }
+
+    /**
+     * Reads an array of strings, ignoring non-primitive elements.
+     *
+     * @param in Reader positioned at the array value
+     * @return Array of string values (empty if value is not an array)
+     */
+    private static String[] readStringArray(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return NO_PARTICIPATING_FIELDS;
+        }
+
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            String value = nextString(in);
+            if (value != null) values.add(value);
+        }
+        in.endArray();
+        return values.isEmpty() ? NO_PARTICIPATING_FIELDS : values.toArray(String[]::new);
+    }
+
+    /**
+     * Reads a primitive value as string.
+     *
+     * @param in Reader positioned at the value
+     * @return String value, or {@code null} for JSON null and non-primitive values
+     */
+    private static String nextString(JsonReader in) throws IOException {
+        return switch (in.peek()) {
+            case STRING, NUMBER -> in.nextString();
+            case BOOLEAN -> String.valueOf(in.nextBoolean());
+            default -> {
+                in.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    /**
+     * Writes extracted formulas in the requested output mode. With {@link WriteOptions#validate()}
+     * the formulas are syntax-checked while they are written, and the report is written next to them.
+     * Folder output of a parser with a filter keeps the files of the fields the filter rejected.
+     *
+     * @param fields   List of parsed field data
+     * @param outDir   Output location; archives are written to {@link OutputMode#target(File)}
+     * @param options  Output mode and generation options
+     * @param callback Callback to report progress and logs
+     * @return Counts of the run
+     * @throws IOException if an archive or bundle cannot be written
+     */
+    public WriteStats writeOutput(List<FieldData> fields, File outDir, WriteOptions options,
+                                  ProgressCallback callback) throws IOException {
+        CompletableFuture<ValidationReport> validation = ValidationReport.start(fields, options.validate());
+        WriteStats stats = switch (options.mode()) {
+            case FOLDER -> FolderOutput.write(fields, outDir, options.addComments(), options.parallelism(),
+                    options.shareFormulas(), !filter.isEmpty(), callback);
+            case ZIP, ZIP_STORED -> writeJsZip(fields, options.mode().target(outDir), options.addComments(),
+                    options.mode() == OutputMode.ZIP_STORED, callback);
+            case BUNDLE -> writeJsBundle(fields, outDir, options.addComments(), callback);
+        };
+        ValidationReport.export(validation, options.mode().target(outDir), options.mode().isArchive(), callback);
+        return stats;
+    }
+
+    /**
+     * Writes every extracted formula into one concatenated {@link BundleOutput#BUNDLE_FILE}
+     * plus a {@link BundleIndex} mapping FieldID, label, section and trigger to byte offset
+     * and length, in a single sequential pass.
+     *
+     * @param fields      List of parsed field data
+     * @param outDir      Output folder receiving bundle and index
+     * @param addComments Flag to determine if the comment header should precede each formula
+     * @param callback    Callback to report progress and logs
+     * @return Written counts of the run
+     * @throws IOException if bundle or index cannot be written
+     */
+    public WriteStats writeJsBundle(List<FieldData> fields, File outDir, boolean addComments,
+                                    ProgressCallback callback) throws IOException {
+        return BundleOutput.write(fields, outDir, addComments, callback);
+    }
+
+    /**
+     * Writes every extracted formula as an entry of a single ZIP archive,
+     * using the same folder layout and file content as {@link #writeJsFiles}.
+     *
+     * @param fields      List of parsed field data
+     * @param zipFile     Target archive
+     * @param addComments Flag to determine if comments should be added to each entry
+     * @param storeOnly   Flag to store entries without compression
+     * @param callback    Callback to report progress and logs
+     * @return Written counts of the run
+     * @throws IOException if the archive cannot be written
+     */
+    public WriteStats writeJsZip(List<FieldData> fields, File zipFile, boolean addComments, boolean storeOnly,
+                                 ProgressCallback callback) throws IOException {
+        return ZipOutput.write(fields, zipFile, addComments, storeOnly, callback);
+    }
+
+    /**
+     * Writes each extracted formula to a separate .js file in organized folders.
+     *
+     * @param fields      List of parsed field data
+     * @param rootDir     Root output directory
+     * @param addComments Flag to determine if comments should be added to the file
+     * @param callback    Callback to report progress and logs
+     * @return Written/skipped/deleted counts of the run
+     */
+    public WriteStats writeJsFiles(List<FieldData> fields, File rootDir, boolean addComments, ProgressCallback callback) {
+        return writeJsFiles(fields, rootDir, addComments, 1, callback);
+    }
+
+    /**
+     * Writes each extracted formula to a separate .js file in organized folders,
+     * running up to {@code parallelism} file writes concurrently on virtual threads.
+     * <p>
+     * Output is incremental (see {@link FolderOutput}): unchanged files are not
+     * rewritten and files of fields removed since the previous run are deleted.
+     *
+     * @param fields      List of parsed field data
+     * @param rootDir     Root output directory
+     * @param addComments Flag to determine if comments should be added to the file
+     * @param parallelism Maximum number of concurrent file writes (1 = sequential)
+     * @param callback    Callback to report progress and logs
+     * @return Written/skipped/deleted counts of the run
+     */
+    public WriteStats writeJsFiles(List<FieldData> fields, File rootDir, boolean addComments, int parallelism, ProgressCallback callback) {
+        return FolderOutput.write(fields, rootDir, addComments, parallelism, false, false, callback);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,655 @@
+package com.extractor.pipeline;
+
+import com.extractor.cache.ParseCache;
+import com.extractor.metrics.RunMetrics;
+import com.extractor.model.FieldData;
+import com.extractor.model.FieldStore;
+import com.extractor.model.WriteStats;
+import com.extractor.output.OutputMode;
+import com.extractor.output.StreamingFolderOutput;
+import com.extractor.output.WriteOptions;
+import com.extractor.parser.FieldFilter;
+import com.extractor.parser.FormulaPool;
+import com.extractor.parser.JsonFormulaParser;
+import com.extractor.search.FormulaIndex;
+import com.extractor.ui.ProgressCallback;
+import com.extractor.util.FileUtils;
+import com.extractor.validation.ValidationReport;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Runs read → parse → write for one input as a cancellable pipeline.
+ * <p>
+ * In folder mode without shared formulas the stages overlap: the parser
+ * pushes each {@link FieldData} into the bounded queues of a
+ * {@link StreamingFolderOutput} while its writers drain them, so the first
+ * files appear on disk right away and progress follows the input bytes
+ * consumed. The other modes need every field before writing (archives and
+ * bundles are written in one pass, shared formulas need all users of a body);
+ * they parse first and then write.
+ * <p>
+ * {@link #cancel()} stops parsing at the next read and makes the writers
+ * discard queued fields. Output stays consistent: folder output keeps whole
+ * files and a matching manifest, and archive and bundle output are not
+ * touched when cancelled before writing starts. Writing in those modes is
+ * short and is not interrupted.
+ * <p>
+ * Inputs holding several definitions (a top-level array, or NDJSON recognised
+ * by {@link #NDJSON_EXTENSIONS}) are read one definition at a time, and each is
+ * written into its own subfolder before the next one is read.
+ * <p>
+ * With a {@link ParseCache}, an unchanged single-definition input is not parsed
+ * at all: its fields are loaded from the cache and written directly.
+ * <p>
+ * When indexing is enabled, a {@link FormulaIndex} of a single-definition input
+ * is built on the common fork-join pool while its output is being written.
+ */
+public final class ExtractionPipeline {
+
+    /**
+     * Outcome of a run.
+     *
+     * @param fields      Number of fields parsed
+     * @param formulaPool Formula bodies seen during parsing
+     * @param stats       Written counts of the run
+     * @param metrics     Per-stage timers and counters of the run
+     * @param index       Search index of the fields, {@link FormulaIndex#EMPTY} unless indexing is enabled
+     *                    and the input holds a single definition
+     * @param cancelled   Whether the run stopped early because of {@link #cancel()}
+     */
+    public record Result(int fields, FormulaPool formulaPool, WriteStats stats, RunMetrics metrics,
+                         FormulaIndex index, boolean cancelled) {
+    }
+
+    /**
+     * Extensions of newline-delimited JSON inputs, one definition per line.
+     */
+    public static final List<String> NDJSON_EXTENSIONS = List.of(".ndjson", ".jsonl");
+
+    /**
+     * Extension of ZIP archives of JSON definitions, extracted entry by entry.
+     */
+    public static final String ZIP_EXTENSION = ".zip";
+
+    /**
+     * Case-insensitive pattern matching the extension of any supported input, to derive output names.
+     */
+    public static final String INPUT_EXTENSION_REGEX = "(?i)\\.((json|ndjson|jsonl)(\\.gz)?|zip)$";
+
+    /**
+     * Names of the ZIP entries extracted from an archive input.
+     */
+    private static final Pattern JSON_ENTRY = Pattern.compile("(?i).*\\.(json|ndjson|jsonl)$");
+
+    /**
+     * Characters not allowed in folder names on Windows, macOS or Linux.
+     */
+    private static final Pattern UNSAFE_CHARS = Pattern.compile("[\\\\/:*?\"<>|\\p{Cntrl}]");
+
+    /**
+     * Buffer size of the reader over one ZIP entry, in chars.
+     */
+    private static final int ENTRY_BUFFER_CHARS = 64 * 1024;
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    /**
+     * Cache of parse results, or {@code null} to always parse
+     */
+    private final ParseCache cache;
+
+    /**
+     * Whether to build a {@link FormulaIndex} of single-definition inputs
+     */
+    private final boolean buildIndex;
+
+    /**
+     * Fields to extract, applied while parsing
+     */
+    private final FieldFilter filter;
+
+    /**
+     * Creates a pipeline that always parses its input.
+     */
+    public ExtractionPipeline() {
+        this(null, false, FieldFilter.ALL);
+    }
+
+    /**
+     * Creates a pipeline that reuses cached parse results of unchanged single-definition inputs
+     * and stores the results of complete parses.
+     *
+     * @param cache Parse result cache, or {@code null} to always parse
+     */
+    public ExtractionPipeline(ParseCache cache) {
+        this(cache, false, FieldFilter.ALL);
+    }
+
+    /**
+     * @param cache      Parse result cache, or {@code null} to always parse
+     * @param buildIndex Whether to build a search index of single-definition inputs, see {@link Result#index()}
+     * @param filter     Fields to extract; cached results are kept per filter
+     */
+    public ExtractionPipeline(ParseCache cache, boolean buildIndex, FieldFilter filter) {
+        this.cache = cache;
+        this.buildIndex = buildIndex;
+        this.filter = filter;
+    }
+
+    /**
+     * Requests the running extraction to stop. Safe to call from any thread.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * @return {@code true} once {@link #cancel()} has been called
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Extracts one input file.
+     *
+     * @param input    Input JSON file path; {@code .gz} files and {@code .zip} archives of JSON files
+     *                 are read without unpacking them to disk
+     * @param outDir   Output directory (archives are written next to it, see {@link OutputMode#target})
+     * @param options  Write options
+     * @param callback Callback to report progress and logs
+     * @return Outcome of the run
+     * @throws IOException if the input cannot be read or parsed, or the output cannot be written
+     */
+    public Result run(String input, File outDir, WriteOptions options, ProgressCallback callback) throws IOException {
+        if (input.toLowerCase(Locale.ROOT).endsWith(ZIP_EXTENSION)) {
+            return runArchive(input, outDir, options, callback);
+        }
+        if (isMultiDefinition(input)) {
+            return runDefinitions(input, outDir, options, callback);
+        }
+
+        String cacheKey = cache != null ? ParseCache.key(Paths.get(input)) : null;
+        if (cacheKey != null && !filter.isEmpty()) cacheKey += "-" + filter.fingerprint();
+        if (cacheKey != null) {
+            Result cached = runCached(input, cacheKey, outDir, options, callback);
+            if (cached != null) return cached;
+        }
+
+        long totalBytes = Files.size(Paths.get(input));
+        AtomicLong bytesRead = new AtomicLong();
+        JsonFormulaParser parser = new JsonFormulaParser(filter);
+        FieldStore fields = new FieldStore();
+        RunMetrics metrics = new RunMetrics();
+        ProgressCallback measured = withMetrics(callback, metrics);
+
+        if (options.mode() == OutputMode.FOLDER && !options.shareFormulas()) {
+            StreamingFolderOutput output = new StreamingFolderOutput(outDir, options.addComments(),
+                    options.parallelism(), StreamingFolderOutput.DEFAULT_QUEUE_CAPACITY,
+                    bytesRead::get, totalBytes, cancelled::get, !filter.isEmpty(), measured);
+
+            boolean complete = false;
+            long parseStart = System.nanoTime();
+            try (Reader reader = new MeasuredReader(FileUtils.openReader(input, bytesRead), metrics)) {
+                parser.parse(reader, fd -> {
+                    fields.add(fd);
+                    long offerStart = System.nanoTime();
+                    output.accept(fd);
+                    metrics.addQueueWait(System.nanoTime() - offerStart);
+                });
+                complete = true;
+            } catch (CancellationException e) {
+                // Stopped by cancel(); finish() below keeps the folder consistent
+            } catch (IOException | RuntimeException e) {
+                output.finish(fields, false);
+                throw e;
+            }
+            recordParse(metrics, System.nanoTime() - parseStart, parser, input, totalBytes, fields.size());
+            fields.trimToSize();
+            warnTrailingDefinitions(parser, callback);
+            logFiltered(parser, callback);
+
+            CompletableFuture<FormulaIndex> index = complete ? startIndex(fields) : noIndex();
+            CompletableFuture<ValidationReport> validation =
+                    ValidationReport.start(fields, complete && options.validate());
+            WriteStats stats = output.finish(fields, complete);
+            ValidationReport.export(validation, outDir, false, measured);
+            if (complete) store(cacheKey, fields, parser, callback);
+            metrics.finish();
+            return new Result(fields.size(), parser.formulaPool(), stats, metrics, index.join(), !complete);
+        }
+
+        long parseStart = System.nanoTime();
+        try (Reader reader = new MeasuredReader(FileUtils.openReader(input, bytesRead), metrics)) {
+            parser.parse(reader, fd -> {
+                fields.add(fd);
+                if (fields.size() % 1000 == 0) {
+                    callback.update("Parsed " + fields.size() + " fields", percent(bytesRead.get(), totalBytes));
+                }
+            });
+        } catch (CancellationException e) {
+            metrics.finish();
+            return new Result(fields.size(), parser.formulaPool(), WriteStats.EMPTY, metrics, FormulaIndex.EMPTY,
+                    true);
+        }
+        recordParse(metrics, System.nanoTime() - parseStart, parser, input, totalBytes, fields.size());
+        fields.trimToSize();
+        warnTrailingDefinitions(parser, callback);
+        logFiltered(parser, callback);
+
+        CompletableFuture<FormulaIndex> index = startIndex(fields);
+        WriteStats stats = parser.writeOutput(fields, outDir, options, measured);
+        store(cacheKey, fields, parser, callback);
+        metrics.finish();
+        return new Result(fields.size(), parser.formulaPool(), stats, metrics, index.join(), false);
+    }
+
+    /**
+     * Writes the fields of a cached parse result, skipping JSON parsing.
+     *
+     * @return Outcome of the run, or {@code null} if the input is not cached
+     */
+    private Result runCached(String input, String key, File outDir, WriteOptions options, ProgressCallback callback)
+            throws IOException {
+        RunMetrics metrics = new RunMetrics();
+        long loadStart = System.nanoTime();
+        ParseCache.Entry entry = cache.get(key);
+        if (entry == null) return null;
+        long loadNanos = System.nanoTime() - loadStart;
+        metrics.addRead(loadNanos);
+
+        List<FieldData> fields = entry.fields();
+        FormulaPool formulaPool = new FormulaPool();
+        for (FieldData fd : fields) formulaPool.add(fd.formula());
+        metrics.parsed(Paths.get(input).getFileName().toString(), Files.size(Paths.get(input)),
+                entry.fieldsScanned(), fields.size());
+        callback.log("Loaded %d fields from the parse cache in %d ms".formatted(fields.size(), loadNanos / 1_000_000));
+
+        if (cancelled.get()) {
+            metrics.finish();
+            return new Result(fields.size(), formulaPool, WriteStats.EMPTY, metrics, FormulaIndex.EMPTY, true);
+        }
+        CompletableFuture<FormulaIndex> index = startIndex(fields);
+        WriteStats stats = new JsonFormulaParser(filter).writeOutput(fields, outDir, options, withMetrics(callback, metrics));
+        metrics.finish();
+        return new Result(fields.size(), formulaPool, stats, metrics, index.join(), false);
+    }
+
+    /**
+     * Starts building the search index of the fields in the background, if indexing is enabled.
+     */
+    private CompletableFuture<FormulaIndex> startIndex(List<FieldData> fields) {
+        return buildIndex ? CompletableFuture.supplyAsync(() -> FormulaIndex.build(fields)) : noIndex();
+    }
+
+    private static CompletableFuture<FormulaIndex> noIndex() {
+        return CompletableFuture.completedFuture(FormulaIndex.EMPTY);
+    }
+
+    /**
+     * Stores a complete parse result in the cache, if caching is enabled.
+     */
+    private void store(String key, List<FieldData> fields, JsonFormulaParser parser, ProgressCallback callback) {
+        if (key == null) return;
+        try {
+            cache.put(key, fields, parser.fieldsScanned());
+        } catch (IOException e) {
+            callback.log("Parse cache not updated: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Extracts an input holding several definitions (top-level array or NDJSON).
+     * Each definition is written into its own subfolder of {@code outDir} — or
+     * archive next to it — as soon as it has been read.
+     */
+    private Result runDefinitions(String input, File outDir, WriteOptions options, ProgressCallback callback)
+            throws IOException {
+        long totalBytes = Files.size(Paths.get(input));
+        AtomicLong bytesRead = new AtomicLong();
+        JsonFormulaParser parser = new JsonFormulaParser(filter);
+        RunMetrics metrics = new RunMetrics();
+        DefinitionWriter writer = new DefinitionWriter(parser, outDir, options, withMetrics(callback, metrics),
+                () -> percent(bytesRead.get(), totalBytes));
+        FileUtils.ensureDir(outDir);
+
+        boolean complete = false;
+        long parseStart = System.nanoTime();
+        try (Reader reader = new MeasuredReader(FileUtils.openReader(input, bytesRead), metrics)) {
+            parser.parseDefinitions(reader, writer);
+            complete = true;
+        } catch (CancellationException e) {
+            // Stopped by cancel(); definitions already written stay complete
+        }
+        recordParse(metrics, System.nanoTime() - parseStart - writer.writeNanos, parser, input, totalBytes,
+                writer.fields);
+        callback.log("Definitions extracted: " + writer.folders.size());
+        logFiltered(parser, callback);
+
+        metrics.finish();
+        return new Result(writer.fields, parser.formulaPool(), writer.stats, metrics, FormulaIndex.EMPTY, !complete);
+    }
+
+    /**
+     * Checks whether an input holds several definitions: newline-delimited JSON
+     * by its extension, or a top-level array by its first character.
+     */
+    private static boolean isMultiDefinition(String input) throws IOException {
+        if (isNdjson(input)) return true;
+
+        try (PushbackReader reader = new PushbackReader(FileUtils.openReader(input))) {
+            return JsonFormulaParser.startsWithArray(reader);
+        }
+    }
+
+    /**
+     * @param name File or entry name
+     * @return {@code true} for newline-delimited JSON, plain or gzip-compressed
+     */
+    private static boolean isNdjson(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (FileUtils.isGzip(lower)) lower = lower.substring(0, lower.length() - FileUtils.GZIP_EXTENSION.length());
+        return NDJSON_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    }
+
+    /**
+     * Extracts every JSON entry of a ZIP archive, decompressing each entry straight
+     * into the parser. Each entry is written into its own subfolder of {@code outDir}
+     * named after the entry; with {@link WriteOptions#parallelEntries()} up to one
+     * entry per CPU is extracted concurrently on virtual threads.
+     * <p>
+     * Failing entries do not stop the others; the run fails afterwards with the first error.
+     */
+    private Result runArchive(String input, File outDir, WriteOptions options, ProgressCallback callback)
+            throws IOException {
+        RunMetrics metrics = new RunMetrics();
+        ProgressCallback measured = withMetrics(callback, metrics);
+        FormulaPool formulaPool = new FormulaPool();
+        FileUtils.ensureDir(outDir);
+
+        try (ZipFile zip = new ZipFile(new File(input), StandardCharsets.UTF_8)) {
+            List<? extends ZipEntry> entries = zip.stream()
+                    .filter(e -> !e.isDirectory() && JSON_ENTRY.matcher(e.getName()).matches())
+                    .toList();
+            Set<String> folders = new HashSet<>();
+            List<File> dirs = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                String name = entries.get(i).getName().replaceFirst(".*/", "").replaceFirst(INPUT_EXTENSION_REGEX, "");
+                dirs.add(new File(outDir, uniqueFolderName(name, i + 1, folders)));
+            }
+
+            AtomicInteger done = new AtomicInteger();
+            List<Future<EntryResult>> results = new ArrayList<>();
+            int parallelism = options.parallelEntries() ? Runtime.getRuntime().availableProcessors() : 1;
+            Semaphore permits = new Semaphore(parallelism);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < entries.size(); i++) {
+                    ZipEntry entry = entries.get(i);
+                    File dir = dirs.get(i);
+                    permits.acquireUninterruptibly();
+                    results.add(executor.submit(() -> {
+                        try {
+                            measured.update("Entry: " + entry.getName(), percent(done.get(), entries.size()));
+                            EntryResult result = extractEntry(zip, entry, dir, options, measured, metrics,
+                                    () -> percent(done.get(), entries.size()));
+                            measured.log("%s: %d formulas. %s".formatted(entry.getName(), result.fields(),
+                                    result.stats().summary()));
+                            done.incrementAndGet();
+                            return result;
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+            }
+
+            int fields = 0;
+            long scanned = 0;
+            WriteStats stats = WriteStats.EMPTY;
+            boolean wasCancelled = false;
+            IOException failure = null;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    EntryResult result = results.get(i).get();
+                    fields += result.fields();
+                    scanned += result.scanned();
+                    stats = stats.plus(result.stats());
+                    formulaPool.merge(result.formulaPool());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof CancellationException) {
+                        wasCancelled = true;
+                        continue;
+                    }
+                    callback.error("FATAL: " + entries.get(i).getName() + " → " + e.getCause().getMessage());
+                    if (failure == null) {
+                        failure = new IOException(entries.get(i).getName() + ": " + e.getCause().getMessage(),
+                                e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while extracting " + input, e);
+                }
+            }
+            if (failure != null) throw failure;
+
+            metrics.parsed(Paths.get(input).getFileName().toString(), Files.size(Paths.get(input)), scanned, fields);
+            callback.log("Entries extracted: " + done.get() + " of " + entries.size());
+            metrics.finish();
+            return new Result(fields, formulaPool, stats, metrics, FormulaIndex.EMPTY, wasCancelled);
+        }
+    }
+
+    /**
+     * Extracts one ZIP entry into {@code dir}, like a file input of the same shape:
+     * one definition, or one subfolder per definition for arrays and NDJSON.
+     */
+    private EntryResult extractEntry(ZipFile zip, ZipEntry entry, File dir, WriteOptions options,
+                                     ProgressCallback callback, RunMetrics metrics, IntSupplier percent)
+            throws IOException {
+        JsonFormulaParser parser = new JsonFormulaParser(filter);
+        long parseStart = System.nanoTime();
+        try (PushbackReader reader = new PushbackReader(new MeasuredReader(new BufferedReader(
+                new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8), ENTRY_BUFFER_CHARS),
+                metrics))) {
+            if (isNdjson(entry.getName()) || JsonFormulaParser.startsWithArray(reader)) {
+                FileUtils.ensureDir(dir);
+                DefinitionWriter writer = new DefinitionWriter(parser, dir, options, callback, percent);
+                parser.parseDefinitions(reader, writer);
+                metrics.addParse(System.nanoTime() - parseStart - writer.writeNanos);
+                logFiltered(parser, callback);
+                return new EntryResult(writer.fields, parser.fieldsScanned(), writer.stats, parser.formulaPool());
+            }
+
+            List<FieldData> fields = parser.parse(reader);
+            metrics.addParse(System.nanoTime() - parseStart);
+            warnTrailingDefinitions(parser, callback);
+            logFiltered(parser, callback);
+            WriteStats stats = parser.writeOutput(fields, dir, options, callback);
+            return new EntryResult(fields.size(), parser.fieldsScanned(), stats, parser.formulaPool());
+        }
+    }
+
+    /**
+     * Outcome of one ZIP entry.
+     */
+    private record EntryResult(int fields, long scanned, WriteStats stats, FormulaPool formulaPool) {
+    }
+
+    /**
+     * Makes a name safe to use as a folder name and unique among {@code used}.
+     *
+     * @param name  Raw name, or {@code null}
+     * @param index 1-based position, used for nameless items and to tell duplicates apart
+     * @param used  Names already taken; receives the returned name
+     * @return Folder name
+     */
+    private static String uniqueFolderName(String name, int index, Set<String> used) {
+        String folder = name == null ? ""
+                : UNSAFE_CHARS.matcher(name).replaceAll("_").strip().replaceAll("\\.+$", "");
+        if (folder.isEmpty()) folder = "Definition " + index;
+        if (!used.add(folder)) {
+            folder = folder + " (" + index + ")";
+            used.add(folder);
+        }
+        return folder;
+    }
+
+    /**
+     * Reports a single-definition input that turned out to hold several definitions.
+     */
+    private static void warnTrailingDefinitions(JsonFormulaParser parser, ProgressCallback callback) {
+        if (parser.hasTrailingDefinitions()) {
+            callback.error("WARNING: input holds more than one definition, only the first was extracted. "
+                    + "Name the file *.ndjson to extract one definition per line.");
+        }
+    }
+
+    /**
+     * Logs how many fields the filter skipped, if a filter is set.
+     */
+    private void logFiltered(JsonFormulaParser parser, ProgressCallback callback) {
+        if (!filter.isEmpty()) {
+            callback.log("Filter %s: %d fields skipped".formatted(filter, parser.fieldsFiltered()));
+        }
+    }
+
+    /**
+     * Records the parse loop time and parser counters.
+     */
+    private static void recordParse(RunMetrics metrics, long parseNanos, JsonFormulaParser parser, String input,
+                                    long totalBytes, int extracted) {
+        metrics.addParse(parseNanos);
+        metrics.parsed(Paths.get(input).getFileName().toString(), totalBytes, parser.fieldsScanned(), extracted);
+    }
+
+    /**
+     * Wraps a callback so that outputs record into the given metrics.
+     */
+    private static ProgressCallback withMetrics(ProgressCallback callback, RunMetrics metrics) {
+        return new ProgressCallback() {
+            @Override
+            public void update(String message, int percent) {
+                callback.update(message, percent);
+            }
+
+            @Override
+            public void log(String message) {
+                callback.log(message);
+            }
+
+            @Override
+            public void error(String message) {
+                callback.error(message);
+            }
+
+            @Override
+            public RunMetrics metrics() {
+                return metrics;
+            }
+        };
+    }
+
+    private static int percent(long done, long total) {
+        return total == 0 ? 0 : (int) Math.min(done * 100.0 / total, 99);
+    }
+
+    /**
+     * Writes each definition of a multi-definition input into its own subfolder and sums up the counts.
+     */
+    private static final class DefinitionWriter implements JsonFormulaParser.DefinitionSink {
+
+        private final JsonFormulaParser parser;
+        private final File outDir;
+        private final WriteOptions options;
+        private final ProgressCallback callback;
+        private final IntSupplier percent;
+        private final Set<String> folders = new HashSet<>();
+        private WriteStats stats = WriteStats.EMPTY;
+        private int fields;
+        private long writeNanos;
+
+        DefinitionWriter(JsonFormulaParser parser, File outDir, WriteOptions options, ProgressCallback callback,
+                         IntSupplier percent) {
+            this.parser = parser;
+            this.outDir = outDir;
+            this.options = options;
+            this.callback = callback;
+            this.percent = percent;
+        }
+
+        @Override
+        public void accept(JsonFormulaParser.Definition definition) throws IOException {
+            long start = System.nanoTime();
+            String folder = uniqueFolderName(definition.name(), definition.index(), folders);
+            callback.update("Definition %d: %s".formatted(definition.index(), folder), percent.getAsInt());
+
+            WriteStats written = parser.writeOutput(definition.fields(), new File(outDir, folder), options, callback);
+            callback.log("%s: %s. %s".formatted(folder, definition.formulaPool().summary(), written.summary()));
+
+            stats = stats.plus(written);
+            fields += definition.fields().size();
+            writeNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Reader recording read time into the run metrics and failing with
+     * {@link CancellationException} once the pipeline is cancelled.
+     */
+    private final class MeasuredReader extends FilterReader {
+
+        private final RunMetrics metrics;
+
+        MeasuredReader(Reader in, RunMetrics metrics) {
+            super(in);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (cancelled.get()) throw new CancellationException();
+            long start = System.nanoTime();
+            int c = super.read();
+            metrics.addRead(System.nanoTime() - start);
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (cancelled.get()) throw new CancellationException();
+            long start = System.nanoTime();
+            int n = super.read(cbuf, off, len);
+            metrics.addRead(System.nanoTime() - start);
+            return n;
+        }
+    }
+}
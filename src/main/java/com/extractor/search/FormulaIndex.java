@@ -0,0 +1,262 @@
+package com.extractor.search;
+
+import com.extractor.model.FieldData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted index from identifier tokens to the fields whose formula mentions them.
+ * <p>
+ * Every identifier-like run ({@code [A-Za-z_$][A-Za-z0-9_$]*}, at least two characters)
+ * of a formula body is a term — this covers variables, API calls such as
+ * {@code getItemFieldValue} and UDT names inside string literals alike — together
+ * with the field's own FieldID and its participating fields. Terms are lower-cased.
+ * <p>
+ * The index is built in parallel: fields are split into chunks, each chunk is
+ * tokenized into its own term map on the common fork-join pool, and the chunk maps
+ * are merged in chunk order, so posting lists come out sorted without a sort.
+ * The result is immutable: a sorted term array and CSR-style posting lists
+ * (one flat array of field indices plus per-term start offsets).
+ * <p>
+ * Queries match every query token as a term prefix and intersect the tokens,
+ * so results narrow as the user types.
+ */
+public final class FormulaIndex {
+
+    /**
+     * Index without fields.
+     */
+    public static final FormulaIndex EMPTY = build(List.of());
+
+    /**
+     * Fields tokenized per parallel task.
+     */
+    private static final int CHUNK_FIELDS = 2048;
+
+    /**
+     * Shortest indexed term; single letters match nearly every formula.
+     */
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private final List<FieldData> fields;
+    private final String[] terms;
+    private final int[] postingStart;
+    private final int[] postings;
+    private final long buildNanos;
+
+    private FormulaIndex(List<FieldData> fields, String[] terms, int[] postingStart, int[] postings,
+                         long buildNanos) {
+        this.fields = fields;
+        this.terms = terms;
+        this.postingStart = postingStart;
+        this.postings = postings;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * Builds the index of the given fields.
+     *
+     * @param fields Extracted fields; kept by the index to resolve results
+     * @return Index over all fields
+     */
+    public static FormulaIndex build(List<FieldData> fields) {
+        long start = System.nanoTime();
+        int chunks = (fields.size() + CHUNK_FIELDS - 1) / CHUNK_FIELDS;
+        List<Map<String, Postings>> chunkTerms = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> tokenize(fields, c * CHUNK_FIELDS, Math.min(fields.size(), (c + 1) * CHUNK_FIELDS)))
+                .toList();
+
+        Map<String, Postings> merged = new HashMap<>();
+        for (Map<String, Postings> chunk : chunkTerms) {
+            chunk.forEach((term, list) -> merged.merge(term, list, Postings::append));
+        }
+
+        String[] terms = merged.keySet().toArray(String[]::new);
+        Arrays.parallelSort(terms);
+
+        int[] postingStart = new int[terms.length + 1];
+        for (int t = 0; t < terms.length; t++) {
+            postingStart[t + 1] = postingStart[t] + merged.get(terms[t]).size;
+        }
+        int[] postings = new int[postingStart[terms.length]];
+        for (int t = 0; t < terms.length; t++) {
+            Postings list = merged.get(terms[t]);
+            System.arraycopy(list.ids, 0, postings, postingStart[t], list.size);
+        }
+        return new FormulaIndex(fields, terms, postingStart, postings, System.nanoTime() - start);
+    }
+
+    /**
+     * Finds the fields matching every token of the query, each as a term prefix.
+     *
+     * @param query Free text, e.g. {@code "getItem qty"}
+     * @return Matching field indices in input order; empty if the query has no token
+     */
+    public int[] search(String query) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(query, 0, tokens::add);
+        if (tokens.isEmpty()) return new int[0];
+
+        BitSet result = null;
+        for (String token : tokens) {
+            BitSet matches = new BitSet(fields.size());
+            int from = lowerBound(token);
+            for (int t = from; t < terms.length && terms[t].startsWith(token); t++) {
+                for (int p = postingStart[t]; p < postingStart[t + 1]; p++) {
+                    matches.set(postings[p]);
+                }
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result.stream().toArray();
+    }
+
+    /**
+     * @param index Field index from {@link #search}
+     * @return Field at that index
+     */
+    public FieldData field(int index) {
+        return fields.get(index);
+    }
+
+    /**
+     * @return Number of indexed fields
+     */
+    public int size() {
+        return fields.size();
+    }
+
+    /**
+     * @return Number of distinct terms
+     */
+    public int termCount() {
+        return terms.length;
+    }
+
+    /**
+     * @return Human-readable one-line summary
+     */
+    public String summary() {
+        return "Search index: %d terms over %d formulas, built in %d ms"
+                .formatted(terms.length, fields.size(), buildNanos / 1_000_000);
+    }
+
+    /**
+     * @return Position of the first term not less than {@code token}
+     */
+    private int lowerBound(String token) {
+        int i = Arrays.binarySearch(terms, token);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Tokenizes the fields {@code [from, to)} into a term map of one chunk.
+     * Formula bodies repeat a lot and share one instance per definition
+     * (see {@link com.extractor.model.FieldStore}), so each distinct body is tokenized once per chunk.
+     */
+    private static Map<String, Postings> tokenize(List<FieldData> fields, int from, int to) {
+        Map<String, Postings> chunk = new HashMap<>();
+        Map<String, String[]> formulaTerms = new IdentityHashMap<>();
+        List<String> buffer = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            FieldData fd = fields.get(i);
+            int field = i;
+            TermSink sink = term -> chunk.computeIfAbsent(term, t -> new Postings()).add(field);
+            String[] terms = formulaTerms.computeIfAbsent(fd.formula(), formula -> {
+                buffer.clear();
+                tokenize(formula, MIN_TERM_LENGTH, buffer::add);
+                return buffer.toArray(String[]::new);
+            });
+            for (String term : terms) sink.accept(term);
+            tokenize(fd.fieldId(), MIN_TERM_LENGTH, sink);
+            for (String participating : fd.participatingFields()) {
+                tokenize(participating, MIN_TERM_LENGTH, sink);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Splits text into lower-cased identifier tokens of at least {@code minLength} characters.
+     */
+    private static void tokenize(String text, int minLength, TermSink sink) {
+        int n = text.length();
+        char[] term = new char[32];
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (!isIdentifierStart(c)) {
+                i++;
+                continue;
+            }
+            int length = 0;
+            boolean ascii = true;
+            for (; i < n && isIdentifierPart(c = text.charAt(i)); i++) {
+                if (length == term.length) term = Arrays.copyOf(term, length * 2);
+                if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+                else if (c > 0x7F) ascii = false;
+                term[length++] = c;
+            }
+            if (length < minLength) continue;
+            String token = new String(term, 0, length);
+            sink.accept(ascii ? token : token.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$'
+                || (c > 0x7F && Character.isLetter(c));
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9') || (c > 0x7F && Character.isLetterOrDigit(c));
+    }
+
+    /**
+     * Receiver of tokens.
+     */
+    @FunctionalInterface
+    private interface TermSink {
+        void accept(String term);
+    }
+
+    /**
+     * Growable, ascending list of field indices of one term within one chunk.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        /**
+         * Adds a field once, however often the term occurs in it.
+         */
+        void add(int field) {
+            if (size > 0 && ids[size - 1] == field) return;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = field;
+        }
+
+        /**
+         * Appends the postings of a later chunk.
+         */
+        Postings append(Postings later) {
+            if (size + later.size > ids.length) ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + later.size));
+            System.arraycopy(later.ids, 0, ids, size, later.size);
+            size += later.size;
+            return this;
+        }
+    }
+}
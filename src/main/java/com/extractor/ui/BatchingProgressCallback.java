@@ -0,0 +1,100 @@
+package com.extractor.ui;
+
+import javax.swing.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ProgressCallback} that coalesces updates before they reach the EDT.
+ * <p>
+ * Writer threads only enqueue log messages into a lock-free queue and
+ * overwrite the latest progress value. A Swing {@link Timer} drains both
+ * at most every {@code flushIntervalMs} milliseconds and hands them to
+ * {@link ProgressPanel} as one appended block and one progress update,
+ * so thousands of generated files cost a handful of EDT events.
+ * <p>
+ * {@link #close()} stops the timer and schedules a final flush; anything
+ * posted to the EDT afterwards is shown after the batched messages.
+ */
+public class BatchingProgressCallback implements ProgressCallback, AutoCloseable {
+
+    /**
+     * Default delay between two flushes to the EDT.
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 100;
+
+    /**
+     * Latest reported progress.
+     *
+     * @param message Status text
+     * @param percent Progress percentage (0–100)
+     */
+    private record Progress(String message, int percent) {
+    }
+
+    private final ProgressPanel panel;
+    private final ConcurrentLinkedQueue<String> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Progress> latest = new AtomicReference<>();
+    private final Timer timer;
+
+    /**
+     * Creates a callback flushing with {@link #DEFAULT_FLUSH_INTERVAL_MS}.
+     *
+     * @param panel Target panel
+     */
+    public BatchingProgressCallback(ProgressPanel panel) {
+        this(panel, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * Creates a callback and starts its flush timer.
+     *
+     * @param panel           Target panel
+     * @param flushIntervalMs Minimum delay between two flushes to the EDT
+     */
+    public BatchingProgressCallback(ProgressPanel panel, int flushIntervalMs) {
+        this.panel = panel;
+        this.timer = new Timer(flushIntervalMs, _ -> flush());
+        this.timer.setCoalesce(true);
+        this.timer.start();
+    }
+
+    @Override
+    public void update(String message, int percent) {
+        latest.set(new Progress(message, percent));
+    }
+
+    @Override
+    public void log(String message) {
+        messages.add(message);
+    }
+
+    /**
+     * Drains queued messages and the latest progress into the panel.
+     * Runs on the EDT.
+     */
+    private void flush() {
+        String message = messages.poll();
+        if (message != null) {
+            StringBuilder block = new StringBuilder();
+            do {
+                block.append(message).append('\n');
+            } while ((message = messages.poll()) != null);
+            panel.appendLogBlock(block);
+        }
+
+        Progress progress = latest.getAndSet(null);
+        if (progress != null) {
+            panel.applyProgress(progress.percent(), progress.message());
+        }
+    }
+
+    /**
+     * Stops the timer and flushes everything still queued.
+     */
+    @Override
+    public void close() {
+        timer.stop();
+        SwingUtilities.invokeLater(this::flush);
+    }
+}
@@ -0,0 +1,174 @@
+package com.extractor.ui;
+
+import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Ring-buffer list model backing the log view.
+ * <p>
+ * Keeps at most {@code capacity} lines in memory. Older lines are evicted
+ * from the front and spilled to a temporary file, so the complete log can
+ * still be saved with {@link #saveTo(File)} while memory stays bounded.
+ * <p>
+ * Like every Swing model, it must only be used on the EDT.
+ */
+class LogListModel extends AbstractListModel<String> {
+
+    private final String[] lines;
+    private int head;
+    private int size;
+
+    /**
+     * Spill file for evicted lines, created on first eviction.
+     */
+    private Path spillFile;
+    private BufferedWriter spillWriter;
+
+    /**
+     * Number of evicted lines that could not be spilled.
+     */
+    private long lostLines;
+
+    /**
+     * Creates a model keeping at most {@code capacity} lines in memory.
+     *
+     * @param capacity line cap (at least 1)
+     */
+    LogListModel(int capacity) {
+        this.lines = new String[Math.max(1, capacity)];
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return lines[(head + index) % lines.length];
+    }
+
+    /**
+     * Appends a block of newline-separated lines, evicting the oldest lines if needed.
+     *
+     * @param block text to append; a trailing line break does not produce an empty line
+     */
+    void append(CharSequence block) {
+        String text = block.toString();
+        if (text.endsWith("\n")) text = text.substring(0, text.length() - 1);
+        String[] added = text.split("\n", -1);
+
+        int capacity = lines.length;
+        int skip = Math.max(0, added.length - capacity);
+        int incoming = added.length - skip;
+
+        // Evict the oldest lines first so the spill file stays in order
+        int evict = Math.max(0, size + incoming - capacity);
+        if (evict > 0) {
+            for (int i = 0; i < evict; i++) {
+                int slot = (head + i) % capacity;
+                spill(lines[slot]);
+                lines[slot] = null;
+            }
+            head = (head + evict) % capacity;
+            size -= evict;
+            fireIntervalRemoved(this, 0, evict - 1);
+        }
+
+        // Lines of an oversized block that never fit in memory
+        for (int i = 0; i < skip; i++) {
+            spill(added[i]);
+        }
+
+        int first = size;
+        for (int i = skip; i < added.length; i++) {
+            lines[(head + size) % capacity] = added[i];
+            size++;
+        }
+        if (incoming > 0) fireIntervalAdded(this, first, size - 1);
+    }
+
+    /**
+     * Removes all lines, including spilled ones.
+     */
+    void clear() {
+        int removed = size;
+        Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+        lostLines = 0;
+        closeSpill();
+        if (removed > 0) fireIntervalRemoved(this, 0, removed - 1);
+    }
+
+    /**
+     * @return {@code true} if lines were evicted from memory since the last clear
+     */
+    boolean hasEvictedLines() {
+        return spillFile != null || lostLines > 0;
+    }
+
+    /**
+     * Saves the full log — spilled lines followed by in-memory lines — to a file.
+     *
+     * @param target output file
+     * @throws IOException if writing fails
+     */
+    void saveTo(File target) throws IOException {
+        if (spillWriter != null) spillWriter.flush();
+
+        try (Writer out = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8)) {
+            if (lostLines > 0) {
+                out.write("... " + lostLines + " earlier lines could not be kept ...\n");
+            }
+            if (spillFile != null) {
+                try (var in = Files.newBufferedReader(spillFile, StandardCharsets.UTF_8)) {
+                    in.transferTo(out);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                out.write(getElementAt(i));
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes an evicted line to the spill file.
+     */
+    private void spill(String line) {
+        try {
+            if (spillWriter == null) {
+                spillFile = Files.createTempFile("jsextractor-log-", ".txt");
+                spillFile.toFile().deleteOnExit();
+                spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            }
+            spillWriter.write(line);
+            spillWriter.write('\n');
+        } catch (IOException e) {
+            lostLines++;
+        }
+    }
+
+    /**
+     * Closes and deletes the spill file.
+     */
+    private void closeSpill() {
+        try {
+            if (spillWriter != null) spillWriter.close();
+            if (spillFile != null) Files.deleteIfExists(spillFile);
+        } catch (IOException ignored) {
+            // Temp file is removed on exit anyway
+        }
+        spillWriter = null;
+        spillFile = null;
+    }
+}
@@ -1,8 +1,14 @@
 package com.extractor.ui;
 
+import com.extractor.cache.ParseCache;
 import com.extractor.config.UserPreferences;
-import com.extractor.parser.JsonFormulaParser;
-import com.extractor.util.FileUtils;
+import com.extractor.metrics.RunMetrics;
+import com.extractor.output.OutputMode;
+import com.extractor.output.WriteOptions;
+import com.extractor.parser.FieldFilter;
+import com.extractor.pipeline.ExtractionPipeline;
+import com.extractor.util.FileWatcher;
+import com.extractor.validation.ValidationReport;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -10,7 +16,12 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.extractor.util.UiPlatform.IS_MAC;
 
@@ -22,7 +33,8 @@ import static com.extractor.util.UiPlatform.IS_MAC;
  *     <li>Selecting input JSON file</li>
  *     <li>Selecting output directory</li>
  *     <li>Configuring generation options</li>
- *     <li>Running extraction in a background thread</li>
+ *     <li>Running extraction in a background thread, with cancellation</li>
+ *     <li>Re-extracting automatically when the input changes (watch mode)</li>
  *     <li>Displaying progress and logs</li>
  * </ul>
  * <p>
@@ -41,16 +53,31 @@ public class MainFrame extends JFrame {
      */
     private final JTextField outputField = new JTextField();
 
+    /**
+     * Text field holding the field filter terms, empty to extract every field.
+     */
+    private final JTextField filterField = new JTextField();
+
     /**
      * Primary action button used to start extraction.
      */
     private final JButton startBtn = new JButton("START");
 
+    /**
+     * Button stopping the running extraction.
+     */
+    private final JButton cancelBtn = new JButton("Cancel");
+
     /**
      * Panel displaying extraction progress and log output.
      */
     private final ProgressPanel progressPanel = new ProgressPanel();
 
+    /**
+     * Panel searching the formulas of the last extraction.
+     */
+    private final SearchPanel searchPanel = new SearchPanel();
+
     /**
      * Toggle for JS header comments
      */
@@ -63,6 +90,71 @@ public class MainFrame extends JFrame {
     private final JCheckBox openFolderCheckBox =
             new JCheckBox("Auto-open results folder", true);
 
+    /**
+     * Toggle for re-extracting automatically when the input file changes
+     */
+    private final JCheckBox watchCheckBox =
+            new JCheckBox("Watch input and re-extract on change", false);
+
+    /**
+     * Toggle for writing a machine-readable metrics report with each run
+     */
+    private final JCheckBox writeMetricsCheckBox =
+            new JCheckBox("Write metrics.json", false);
+
+    /**
+     * Runs manual and watch-triggered extractions one at a time, off the EDT
+     */
+    private final ExecutorService extractionExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "extraction");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Parse results of earlier runs, so re-running an unchanged input skips parsing
+     */
+    private final ParseCache parseCache = ParseCache.standard();
+
+    /**
+     * Pipeline of the running extraction, or {@code null} when idle
+     */
+    private volatile ExtractionPipeline activePipeline;
+
+    /**
+     * Active input watcher, or {@code null} when watch mode is off
+     */
+    private FileWatcher watcher;
+
+    /**
+     * Toggle for extracting the JSON entries of a ZIP input concurrently
+     */
+    private final JCheckBox parallelEntriesCheckBox =
+            new JCheckBox("Parallel ZIP entries", false);
+
+    /**
+     * Toggle for the syntax check of every extracted formula
+     */
+    private final JCheckBox validateCheckBox =
+            new JCheckBox("Validate JS syntax", false);
+
+    /**
+     * Toggle for writing formula bodies used by several fields once to _shared/
+     */
+    private final JCheckBox shareFormulasCheckBox =
+            new JCheckBox("Share identical formulas", false);
+
+    /**
+     * Output layout (folder or single archive)
+     */
+    private final JComboBox<OutputMode> outputModeCombo = new JComboBox<>(OutputMode.values());
+
+    /**
+     * Maximum number of JS files written concurrently
+     */
+    private final JSpinner parallelismSpinner =
+            new JSpinner(new SpinnerNumberModel(UserPreferences.DEFAULT_WRITE_PARALLELISM, 1, 64, 1));
+
     /**
      * Creates and initializes the main window.
      */
@@ -79,20 +171,11 @@ public class MainFrame extends JFrame {
      */
     private void initUI() {
         setTitle("Pepperi Transaction/Activity JSON → JS files v1.2.1");
-        setSize(640, 480);
+        setSize(640, 560);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        try {
-            Image image = ImageIO.read(
-                    Objects.requireNonNull(
-                            getClass().getResourceAsStream("/app.png")
-                    )
-            );
-            setIconImage(image);
-        } catch (IOException e) {
-            progressPanel.log("Frame icon error: %s".formatted(e.getMessage()));
-        }
+        loadIconAsync();
 
         JPanel top = new JPanel(new GridBagLayout());
         GridBagConstraints g = new GridBagConstraints();
@@ -129,6 +212,18 @@ public class MainFrame extends JFrame {
         browseOutput.addActionListener(_ -> chooseOutput());
         top.add(browseOutput, g);
 
+        // ---- Filter row ----
+        g.gridx = 0;
+        g.gridy = 2;
+        top.add(new JLabel("Filter:"), g);
+
+        g.gridx = 1;
+        g.gridwidth = 2;
+        filterField.setToolTipText("<html>Extract only matching fields, e.g. <code>section:line* trigger:OnChange"
+                + " -id:TSATest*</code><br>" + FieldFilter.SYNTAX + "<br>Empty: every field</html>");
+        top.add(filterField, g);
+        g.gridwidth = 1;
+
         // ---- Options ----
         JPanel optionsPanel = new JPanel(
                 new FlowLayout(IS_MAC ? FlowLayout.LEFT : FlowLayout.CENTER, 20, 0)
@@ -142,12 +237,61 @@ public class MainFrame extends JFrame {
             optionsPanel.add(openFolderCheckBox);
         }
 
+        watchCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        watchCheckBox.addActionListener(_ -> updateWatcher());
+
+        writeMetricsCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        writeMetricsCheckBox.setToolTipText("Write per-stage timings to metrics.json in the output folder");
+
+        validateCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        validateCheckBox.setToolTipText("Check brackets, strings and comments of every formula and list broken ones in "
+                + ValidationReport.FILE_NAME);
+
         g.gridx = 0;
-        g.gridy = 2;
+        g.gridy = 3;
         g.gridwidth = 3;
         g.anchor = GridBagConstraints.CENTER;
         top.add(optionsPanel, g);
 
+        // ---- Output options ----
+        JPanel outputPanel = new JPanel(
+                new FlowLayout(IS_MAC ? FlowLayout.LEFT : FlowLayout.CENTER, 10, 0)
+        );
+
+        JLabel outputModeLabel = new JLabel("Output:");
+        outputModeLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        outputModeLabel.setLabelFor(outputModeCombo);
+        outputPanel.add(outputModeLabel);
+        outputPanel.add(outputModeCombo);
+
+        shareFormulasCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        shareFormulasCheckBox.setToolTipText("Folder output: write bodies used by several fields once to _shared/");
+        outputPanel.add(shareFormulasCheckBox);
+
+        JLabel parallelismLabel = new JLabel("Parallel writes:");
+        parallelismLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        parallelismLabel.setLabelFor(parallelismSpinner);
+        outputPanel.add(parallelismLabel);
+        outputPanel.add(parallelismSpinner);
+
+        parallelEntriesCheckBox.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        parallelEntriesCheckBox.setToolTipText("ZIP input: extract its JSON files concurrently");
+        outputPanel.add(parallelEntriesCheckBox);
+
+        g.gridy = 4;
+        top.add(outputPanel, g);
+
+        // ---- Watch mode ----
+        JPanel watchPanel = new JPanel(
+                new FlowLayout(IS_MAC ? FlowLayout.LEFT : FlowLayout.CENTER, 20, 0)
+        );
+        watchPanel.add(watchCheckBox);
+        watchPanel.add(writeMetricsCheckBox);
+        watchPanel.add(validateCheckBox);
+
+        g.gridy = 5;
+        top.add(watchPanel, g);
+
         // ---- Start button ----
         startBtn.setFont(new Font("Segoe UI", Font.BOLD, 18));
         startBtn.setPreferredSize(
@@ -157,15 +301,22 @@ public class MainFrame extends JFrame {
         );
         startBtn.addActionListener(_ -> startExtraction());
 
+        cancelBtn.setEnabled(false);
+        cancelBtn.addActionListener(_ -> cancelExtraction());
+
         JPanel center = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         center.add(startBtn);
+        center.add(cancelBtn);
 
         JPanel north = new JPanel(new BorderLayout());
         north.add(top, BorderLayout.CENTER);
         north.add(center, BorderLayout.SOUTH);
 
         add(north, BorderLayout.NORTH);
-        add(progressPanel, BorderLayout.CENTER);
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Log", progressPanel);
+        tabs.addTab("Search", searchPanel);
+        add(tabs, BorderLayout.CENTER);
 
         progressPanel.log("Select JSON file and output folder.");
     }
@@ -185,7 +336,8 @@ public class MainFrame extends JFrame {
             }
         }
 
-        fc.setFileFilter(new FileNameExtensionFilter("JSON (*.json)", "json"));
+        fc.setFileFilter(new FileNameExtensionFilter("JSON (*.json, *.ndjson, *.jsonl, *.gz, *.zip)",
+                "json", "ndjson", "jsonl", "gz", "zip"));
 
         if (fc.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             File f = fc.getSelectedFile();
@@ -195,7 +347,7 @@ public class MainFrame extends JFrame {
 
             if (outputField.getText().isEmpty()) {
                 // Suggest output folder: same dir, filename + "_extracted"
-                String name = f.getName().replaceFirst("\\.json$", "");
+                String name = f.getName().replaceFirst(ExtractionPipeline.INPUT_EXTENSION_REGEX, "");
                 String suggested = f.getParent() + File.separator + name + "_extracted";
                 outputField.setText(suggested);
 
@@ -203,6 +355,7 @@ public class MainFrame extends JFrame {
             }
 
             savePreferences();
+            updateWatcher();
         }
     }
 
@@ -246,58 +399,240 @@ public class MainFrame extends JFrame {
             return;
         }
 
+        FieldFilter filter;
+        try {
+            filter = FieldFilter.parse(filterField.getText());
+        } catch (IllegalArgumentException e) {
+            progressPanel.log("ERROR: " + e.getMessage());
+            return;
+        }
+
         startBtn.setEnabled(false);
         progressPanel.reset();
+        UserPreferences.setFieldFilter(filterField.getText().trim());
+
+        WriteOptions options = currentWriteOptions();
+        boolean writeMetrics = writeMetricsCheckBox.isSelected();
 
         // Run extraction in background to keep UI responsive
-        new Thread(() -> {
-            try {
-                String json = FileUtils.readFile(in);
-                JsonFormulaParser parser = new JsonFormulaParser();
-                var fields = parser.parse(json);
-
-                File rootDir = new File(out);
-                FileUtils.ensureDir(rootDir);
-
-                parser.writeJsFiles(fields, rootDir, addCommentsCheckBox.isSelected(), new ProgressCallback() {
-                    @Override
-                    public void update(String msg, int percent) {
-                        progressPanel.setProgress(percent, msg);
-                    }
+        extractionExecutor.execute(() -> runExtraction(in, out, options, filter, writeMetrics, true));
+    }
 
-                    @Override
-                    public void log(String msg) {
-                        progressPanel.log(msg);
-                    }
-                });
+    /**
+     * Runs read → parse → write for the given input and output on the
+     * extraction executor and remembers the pipeline so it can be cancelled.
+     * <p>
+     * Interactive runs re-enable the START button and may open the output
+     * folder; watch-triggered runs only log a short summary with the elapsed time.
+     *
+     * @param in           Input JSON file path
+     * @param out          Output location
+     * @param options      Write options
+     * @param filter       Fields to extract
+     * @param writeMetrics Flag to write the metrics report of the run
+     * @param interactive  {@code true} for a run started with the START button
+     */
+    private void runExtraction(String in, String out, WriteOptions options, FieldFilter filter,
+                               boolean writeMetrics, boolean interactive) {
+        long start = System.nanoTime();
+        ExtractionPipeline pipeline = new ExtractionPipeline(parseCache, true, filter);
+        activePipeline = pipeline;
+        SwingUtilities.invokeLater(() -> cancelBtn.setEnabled(true));
+
+        try {
+            OutputMode outputMode = options.mode();
+            File rootDir = new File(out);
+            File target = outputMode.target(rootDir);
+
+            // Coalesce per-file progress into periodic EDT updates
+            ExtractionPipeline.Result result;
+            try (BatchingProgressCallback callback = new BatchingProgressCallback(progressPanel)) {
+                result = pipeline.run(in, rootDir, options, callback);
+            }
+
+            String metricsNote = writeMetrics ? writeMetrics(result, target, outputMode.isArchive()) : null;
+            if (!result.cancelled()) SwingUtilities.invokeLater(() -> searchPanel.setIndex(result.index()));
 
-                // Success message on EDT
+            if (result.cancelled()) {
                 SwingUtilities.invokeLater(() -> {
                     progressPanel.log("");
-                    progressPanel.log("SUCCESS! Generated " + fields.size() + " files");
-                    progressPanel.log("Folder: " + rootDir.getAbsolutePath());
-
-                    if (Desktop.isDesktopSupported() && openFolderCheckBox.isSelected()) {
-                        try {
-                            Desktop.getDesktop().open(new File(rootDir.getAbsolutePath()));
-                        } catch (IOException ex) {
-                            progressPanel.log("FATAL: " + ex.getMessage());
-                        }
+                    progressPanel.log("CANCELLED after " + result.fields() + " formulas. "
+                            + "Output is consistent; run again to complete it.");
+                    if (interactive) startBtn.setEnabled(true);
+                });
+                return;
+            }
+
+            if (!interactive) {
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                progressPanel.log("Re-extracted in " + millis + " ms: " + result.stats().summary());
+                if (metricsNote != null) progressPanel.log(metricsNote);
+                return;
+            }
+
+            // Success message on EDT
+            SwingUtilities.invokeLater(() -> {
+                progressPanel.log("");
+                progressPanel.log("SUCCESS! Extracted " + result.fields() + " formulas");
+                progressPanel.log(result.formulaPool().summary());
+                progressPanel.log(result.stats().summary());
+                progressPanel.log(result.metrics().summary());
+                if (result.index().size() > 0) progressPanel.log(result.index().summary());
+                if (metricsNote != null) progressPanel.log(metricsNote);
+                progressPanel.log((outputMode.isArchive() ? "Archive: " : "Folder: ") + target.getAbsolutePath());
+
+                if (Desktop.isDesktopSupported() && openFolderCheckBox.isSelected()) {
+                    try {
+                        // Open the folder containing the archive rather than the archive itself
+                        File folder = outputMode.isArchive() ? target.getAbsoluteFile().getParentFile() : target;
+                        Desktop.getDesktop().open(folder.getAbsoluteFile());
+                    } catch (IOException ex) {
+                        progressPanel.log("FATAL: " + ex.getMessage());
                     }
+                }
 
-                    startBtn.setEnabled(true);
-                });
+                startBtn.setEnabled(true);
+                updateWatcher();
+            });
 
-                savePreferences();
+            savePreferences();
 
-            } catch (Exception ex) {
-                // Error handling on EDT
-                SwingUtilities.invokeLater(() -> {
-                    progressPanel.log("FATAL: " + ex.getMessage());
-                    startBtn.setEnabled(true);
-                });
+        } catch (Exception ex) {
+            // Error handling on EDT
+            SwingUtilities.invokeLater(() -> {
+                progressPanel.log("FATAL: " + ex.getMessage());
+                if (interactive) startBtn.setEnabled(true);
+            });
+        } finally {
+            activePipeline = null;
+            SwingUtilities.invokeLater(() -> cancelBtn.setEnabled(false));
+        }
+    }
+
+    /**
+     * Writes the metrics report of a run unless it was cancelled.
+     *
+     * @param result  Outcome of the run
+     * @param target  Output folder or archive
+     * @param archive Whether {@code target} is an archive
+     * @return Log line describing the written report, or {@code null} if none was written
+     */
+    private String writeMetrics(ExtractionPipeline.Result result, File target, boolean archive) {
+        if (result.cancelled()) return null;
+
+        File file = RunMetrics.fileFor(target, archive);
+        try {
+            result.metrics().writeJson(file.toPath());
+            return "Metrics: " + file.getAbsolutePath();
+        } catch (IOException e) {
+            return "FATAL: " + file.getName() + " → " + e.getMessage();
+        }
+    }
+
+    /**
+     * Cancels the running extraction, if any.
+     */
+    private void cancelExtraction() {
+        ExtractionPipeline pipeline = activePipeline;
+        if (pipeline != null && !pipeline.isCancelled()) {
+            pipeline.cancel();
+            progressPanel.log("Cancelling...");
+        }
+    }
+
+    /**
+     * @return Write options reflecting the current state of the option controls
+     */
+    private WriteOptions currentWriteOptions() {
+        return new WriteOptions(
+                (OutputMode) outputModeCombo.getSelectedItem(),
+                addCommentsCheckBox.isSelected(),
+                (Integer) parallelismSpinner.getValue(),
+                shareFormulasCheckBox.isSelected(),
+                parallelEntriesCheckBox.isSelected(),
+                validateCheckBox.isSelected()
+        );
+    }
+
+    /**
+     * Starts, restarts or stops the input watcher to match the
+     * "Watch input" checkbox and the selected input file.
+     */
+    private void updateWatcher() {
+        String in = inputField.getText().trim();
+        Path inPath = in.isEmpty() ? null : new File(in).toPath().toAbsolutePath().normalize();
+
+        if (watcher != null && (!watchCheckBox.isSelected() || !watcher.file().equals(inPath))) {
+            watcher.close();
+            watcher = null;
+            progressPanel.log("Watch stopped.");
+        }
+
+        if (watcher != null || !watchCheckBox.isSelected() || inPath == null || !Files.isRegularFile(inPath)) return;
+
+        try {
+            watcher = new FileWatcher(inPath, FileWatcher.DEFAULT_DEBOUNCE_MS, this::onInputChanged);
+            progressPanel.log("Watching " + inPath.getFileName() + " for changes.");
+        } catch (IOException e) {
+            progressPanel.log("FATAL: cannot watch input → " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queues a re-extraction after the watched input changed. Called on the watcher
+     * thread, so the controls are read on the EDT by {@link #reExtract()}.
+     */
+    private void onInputChanged() {
+        SwingUtilities.invokeLater(this::reExtract);
+    }
+
+    /**
+     * Takes input, output, filter and options from the controls and submits a
+     * watch-triggered run, like {@link #startExtraction()} does. Runs on the EDT.
+     */
+    private void reExtract() {
+        String in = inputField.getText().trim();
+        String out = outputField.getText().trim();
+        if (in.isEmpty() || out.isEmpty() || !new File(in).isFile()) return;
+
+        FieldFilter filter;
+        try {
+            filter = FieldFilter.parse(filterField.getText());
+        } catch (IllegalArgumentException e) {
+            progressPanel.log("Change detected, not re-extracted: " + e.getMessage());
+            return;
+        }
+
+        WriteOptions options = currentWriteOptions();
+        boolean writeMetrics = writeMetricsCheckBox.isSelected();
+
+        progressPanel.log("Change detected: " + new File(in).getName());
+        extractionExecutor.execute(() -> runExtraction(in, out, options, filter, writeMetrics, false));
+    }
+
+    /**
+     * Decodes the frame icon on a background thread and applies it on the EDT.
+     * <p>
+     * Keeps Image I/O class loading and PNG decoding out of the time to the first frame.
+     */
+    private void loadIconAsync() {
+        Thread.ofVirtual().name("icon-loader").start(() -> {
+            try (InputStream in = Objects.requireNonNull(getClass().getResourceAsStream("/app.png"))) {
+                Image image = ImageIO.read(in);
+                SwingUtilities.invokeLater(() -> setIconImage(image));
+            } catch (IOException e) {
+                progressPanel.log("Frame icon error: %s".formatted(e.getMessage()));
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Logs how long the application took from process start to showing this window.
+     *
+     * @param millis Start-to-first-frame time in milliseconds
+     */
+    public void logStartupTime(long millis) {
+        progressPanel.log("Started in %d ms".formatted(millis));
     }
 
     /**
@@ -307,8 +642,15 @@ public class MainFrame extends JFrame {
     private void loadPreferences() {
         inputField.setText(UserPreferences.getLastInput());
         outputField.setText(UserPreferences.getLastOutput());
+        filterField.setText(UserPreferences.getFieldFilter());
         addCommentsCheckBox.setSelected(UserPreferences.isAddCommentsEnabled());
         openFolderCheckBox.setSelected(UserPreferences.isOpenFolderEnabled());
+        parallelismSpinner.setValue(Math.min(64, UserPreferences.getWriteParallelism()));
+        outputModeCombo.setSelectedItem(UserPreferences.getOutputMode());
+        shareFormulasCheckBox.setSelected(UserPreferences.isShareFormulasEnabled());
+        writeMetricsCheckBox.setSelected(UserPreferences.isWriteMetricsEnabled());
+        parallelEntriesCheckBox.setSelected(UserPreferences.isParallelEntriesEnabled());
+        validateCheckBox.setSelected(UserPreferences.isValidateEnabled());
     }
 
     /**
@@ -317,7 +659,14 @@ public class MainFrame extends JFrame {
     private void savePreferences() {
         UserPreferences.setLastInput(inputField.getText());
         UserPreferences.setLastOutput(outputField.getText());
+        UserPreferences.setFieldFilter(filterField.getText().trim());
         UserPreferences.setAddCommentsEnabled(addCommentsCheckBox.isSelected());
         UserPreferences.setOpenFolderEnabled(openFolderCheckBox.isSelected());
+        UserPreferences.setWriteParallelism((Integer) parallelismSpinner.getValue());
+        UserPreferences.setOutputMode((OutputMode) outputModeCombo.getSelectedItem());
+        UserPreferences.setShareFormulasEnabled(shareFormulasCheckBox.isSelected());
+        UserPreferences.setWriteMetricsEnabled(writeMetricsCheckBox.isSelected());
+        UserPreferences.setParallelEntriesEnabled(parallelEntriesCheckBox.isSelected());
+        UserPreferences.setValidateEnabled(validateCheckBox.isSelected());
     }
 }
\ No newline at end of file
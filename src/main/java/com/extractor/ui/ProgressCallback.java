@@ -1,5 +1,7 @@
 package com.extractor.ui;
 
+import com.extractor.metrics.RunMetrics;
+
 /**
  * Callback interface for UI progress updates during file generation.
  */
@@ -18,4 +20,26 @@ public interface ProgressCallback {
      * @param message Message to log
      */
     void log(String message);
+
+    /**
+     * Reports a failure that should stay visible even when regular log output is suppressed.
+     * <p>
+     * Defaults to {@link #log(String)}.
+     *
+     * @param message Failure message
+     */
+    default void error(String message) {
+        log(message);
+    }
+
+    /**
+     * Returns the metrics collector of the run reported to this callback.
+     * <p>
+     * Defaults to {@link RunMetrics#DISABLED}.
+     *
+     * @return Metrics collector
+     */
+    default RunMetrics metrics() {
+        return RunMetrics.DISABLED;
+    }
 }
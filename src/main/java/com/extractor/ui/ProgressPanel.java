@@ -1,7 +1,12 @@
 package com.extractor.ui;
 
+import com.extractor.config.UserPreferences;
+
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.io.File;
+import java.io.IOException;
 
 import static com.extractor.util.UiPlatform.IS_MAC;
 
@@ -11,9 +16,15 @@ import static com.extractor.util.UiPlatform.IS_MAC;
  * Displays:
  * <ul>
  *     <li>Progress bar with percentage and status text</li>
- *     <li>Scrollable log output area</li>
+ *     <li>Scrollable log output list</li>
+ *     <li>Button saving the full log to a file</li>
  * </ul>
  * <p>
+ * The log is bounded: {@link LogListModel} keeps at most
+ * {@link UserPreferences#getLogLineCap()} lines in memory and spills older
+ * ones to a temporary file, and the {@link JList} view only paints the
+ * rows that are visible, so long sessions stay fast and small.
+ * <p>
  * UI appearance is slightly adapted per platform:
  * <ul>
  *     <li>macOS — native system font and colors</li>
@@ -31,14 +42,28 @@ public class ProgressPanel extends JPanel {
     private final JProgressBar progressBar;
 
     /**
-     * Scrollable text area used for log output
+     * Bounded model holding log lines
      */
-    private final JTextArea logArea;
+    private final LogListModel logModel;
 
     /**
-     * Creates progress panel with platform-aware styling.
+     * Virtualized list rendering the visible log lines
+     */
+    private final JList<String> logList;
+
+    /**
+     * Creates progress panel with the line cap from user preferences.
      */
     public ProgressPanel() {
+        this(UserPreferences.getLogLineCap());
+    }
+
+    /**
+     * Creates progress panel with platform-aware styling.
+     *
+     * @param maxLines maximum number of log lines kept in memory
+     */
+    public ProgressPanel(int maxLines) {
         setLayout(new BorderLayout(0, 8));
 
         progressBar = new JProgressBar(0, 100);
@@ -48,40 +73,53 @@ public class ProgressPanel extends JPanel {
                 new Dimension(10, IS_MAC ? 18 : 26)
         );
 
-        // ---- Log area ----
-        logArea = new JTextArea();
-        logArea.setEditable(false);
+        // ---- Log list ----
+        logModel = new LogListModel(maxLines);
+        logList = new JList<>(logModel);
+        logList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        logList.setLayoutOrientation(JList.VERTICAL);
 
         if (IS_MAC) {
             // Native macOS appearance
-            logArea.setFont(UIManager.getFont("TextArea.font"));
-            logArea.setBackground(UIManager.getColor("TextArea.background"));
-            logArea.setForeground(UIManager.getColor("TextArea.foreground"));
+            logList.setFont(UIManager.getFont("TextArea.font"));
+            logList.setBackground(UIManager.getColor("TextArea.background"));
+            logList.setForeground(UIManager.getColor("TextArea.foreground"));
         } else {
             // Developer-style console look
-            logArea.setFont(new Font("Consolas", Font.PLAIN, 13));
-            logArea.setBackground(new Color(30, 30, 30));
-            logArea.setForeground(new Color(0, 255, 120));
+            logList.setFont(new Font("Consolas", Font.PLAIN, 13));
+            logList.setBackground(new Color(30, 30, 30));
+            logList.setForeground(new Color(0, 255, 120));
+            logList.setSelectionBackground(new Color(60, 60, 60));
+            logList.setSelectionForeground(new Color(0, 255, 120));
         }
 
-        logArea.setText("Ready.\n");
+        // Fixed row height lets the list skip measuring every line
+        logList.setFixedCellHeight(logList.getFontMetrics(logList.getFont()).getHeight() + 2);
+        logList.setPrototypeCellValue("Generated: Header Fields/Some typical field label.js");
+
+        logModel.append("Ready.\n");
+
+        // ---- Save log button ----
+        JButton saveLogBtn = new JButton("Save log...");
+        saveLogBtn.addActionListener(_ -> saveLog());
+
+        JPanel bottom = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        bottom.add(saveLogBtn);
 
         add(progressBar, BorderLayout.NORTH);
-        add(new JScrollPane(logArea), BorderLayout.CENTER);
+        add(new JScrollPane(logList), BorderLayout.CENTER);
+        add(bottom, BorderLayout.SOUTH);
     }
 
     /**
-     * Appends a message to the log area.
+     * Appends a message to the log.
      * <p>
      * Automatically scrolls to the latest entry.
      *
      * @param msg message to append
      */
     public void log(String msg) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append(msg + "\n");
-            logArea.setCaretPosition(logArea.getDocument().getLength());
-        });
+        SwingUtilities.invokeLater(() -> appendLogBlock(msg + "\n"));
     }
 
     /**
@@ -91,10 +129,33 @@ public class ProgressPanel extends JPanel {
      * @param status short status description
      */
     public void setProgress(int value, String status) {
-        SwingUtilities.invokeLater(() -> {
-            progressBar.setValue(value);
-            progressBar.setString(value + "% – " + status);
-        });
+        SwingUtilities.invokeLater(() -> applyProgress(value, status));
+    }
+
+    /**
+     * Appends a block of newline-terminated lines and scrolls to the end.
+     * <p>
+     * Must be called on the EDT.
+     *
+     * @param block lines to append, each terminated by a line break
+     */
+    void appendLogBlock(CharSequence block) {
+        logModel.append(block);
+        int last = logModel.getSize() - 1;
+        if (last >= 0) logList.ensureIndexIsVisible(last);
+    }
+
+    /**
+     * Applies progress bar value and status text.
+     * <p>
+     * Must be called on the EDT.
+     *
+     * @param value  progress percentage (0–100)
+     * @param status short status description
+     */
+    void applyProgress(int value, String status) {
+        progressBar.setValue(value);
+        progressBar.setString(value + "% – " + status);
     }
 
     /**
@@ -104,7 +165,28 @@ public class ProgressPanel extends JPanel {
         SwingUtilities.invokeLater(() -> {
             progressBar.setValue(0);
             progressBar.setString("0%");
-            logArea.setText("");
+            logModel.clear();
         });
     }
+
+    /**
+     * Asks for a target file and saves the full log, including lines
+     * already evicted from memory.
+     */
+    private void saveLog() {
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("Log (*.log, *.txt)", "log", "txt"));
+        fc.setSelectedFile(new File("extraction.log"));
+
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File target = fc.getSelectedFile();
+        try {
+            logModel.saveTo(target);
+            appendLogBlock("Log saved: " + target.getAbsolutePath()
+                    + (logModel.hasEvictedLines() ? " (including lines no longer shown)" : "") + "\n");
+        } catch (IOException e) {
+            appendLogBlock("Failed: log → " + e.getMessage() + "\n");
+        }
+    }
 }
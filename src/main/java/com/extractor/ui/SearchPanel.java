@@ -0,0 +1,176 @@
+package com.extractor.ui;
+
+import com.extractor.model.FieldData;
+import com.extractor.search.FormulaIndex;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.extractor.util.UiPlatform.IS_MAC;
+
+/**
+ * Search over the formulas of the last extracted definition.
+ * <p>
+ * Displays:
+ * <ul>
+ *     <li>Query field, searched on every keystroke</li>
+ *     <li>List of matching fields ({@code Section / Label (FieldID)})</li>
+ *     <li>Read-only preview of the selected formula</li>
+ * </ul>
+ * <p>
+ * Queries run against a {@link FormulaIndex}, so results appear as you type even
+ * across tens of thousands of formulas; at most {@link #MAX_RESULTS} are listed.
+ * Styled like {@link ProgressPanel}. Must be used on the EDT.
+ */
+public class SearchPanel extends JPanel {
+
+    /**
+     * Maximum number of listed matches
+     */
+    private static final int MAX_RESULTS = 500;
+
+    /**
+     * Free-text query field
+     */
+    private final JTextField queryField = new JTextField();
+
+    /**
+     * Number of matches of the current query
+     */
+    private final JLabel countLabel = new JLabel(" ");
+
+    /**
+     * Field indices of the listed matches
+     */
+    private final DefaultListModel<Integer> resultModel = new DefaultListModel<>();
+
+    /**
+     * List of the matching fields
+     */
+    private final JList<Integer> resultList = new JList<>(resultModel);
+
+    /**
+     * Formula body of the selected match
+     */
+    private final JTextArea preview = new JTextArea();
+
+    /**
+     * Index searched by the query field
+     */
+    private FormulaIndex index = FormulaIndex.EMPTY;
+
+    /**
+     * Creates search panel with platform-aware styling.
+     */
+    public SearchPanel() {
+        setLayout(new BorderLayout(0, 8));
+
+        queryField.setToolTipText("Identifiers, API calls or UDT names; every word is matched as a prefix");
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                search();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                search();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                search();
+            }
+        });
+
+        JPanel top = new JPanel(new BorderLayout(8, 0));
+        top.add(new JLabel("Search formulas:"), BorderLayout.WEST);
+        top.add(queryField, BorderLayout.CENTER);
+        top.add(countLabel, BorderLayout.EAST);
+
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int i,
+                                                          boolean selected, boolean focused) {
+                FieldData fd = index.field((Integer) value);
+                String text = fd.section() + " / " + fd.label() + " (" + fd.fieldId() + ")";
+                return super.getListCellRendererComponent(list, text, i, selected, focused);
+            }
+        });
+        resultList.addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting()) return;
+            Integer selected = resultList.getSelectedValue();
+            preview.setText(selected != null ? index.field(selected).formula() : "");
+            preview.setCaretPosition(0);
+        });
+
+        preview.setEditable(false);
+        if (IS_MAC) {
+            // Native macOS appearance
+            resultList.setFont(UIManager.getFont("TextArea.font"));
+            preview.setFont(UIManager.getFont("TextArea.font"));
+        } else {
+            // Developer-style console look
+            Font console = new Font("Consolas", Font.PLAIN, 13);
+            resultList.setFont(console);
+            preview.setFont(console);
+            preview.setBackground(new Color(30, 30, 30));
+            preview.setForeground(new Color(0, 255, 120));
+            preview.setCaretColor(new Color(0, 255, 120));
+        }
+
+        // Fixed row height lets the list skip measuring every row
+        resultList.setFixedCellHeight(resultList.getFontMetrics(resultList.getFont()).getHeight() + 2);
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(resultList), new JScrollPane(preview));
+        split.setResizeWeight(0.5);
+
+        add(top, BorderLayout.NORTH);
+        add(split, BorderLayout.CENTER);
+        setIndex(FormulaIndex.EMPTY);
+    }
+
+    /**
+     * Replaces the searched index and re-runs the current query.
+     *
+     * @param index Index of the last extracted definition
+     */
+    public void setIndex(FormulaIndex index) {
+        this.index = index;
+        queryField.setEnabled(index.size() > 0);
+        search();
+    }
+
+    /**
+     * Runs the current query and lists its first {@link #MAX_RESULTS} matches.
+     */
+    private void search() {
+        resultModel.clear();
+        preview.setText("");
+        if (index.size() == 0) {
+            countLabel.setText("Extract a single definition to search it");
+            return;
+        }
+
+        int[] matches = index.search(queryField.getText());
+        int shown = Math.min(matches.length, MAX_RESULTS);
+        // One bulk insert fires a single interval event instead of one per row
+        List<Integer> rows = new ArrayList<>(shown);
+        for (int i = 0; i < shown; i++) rows.add(matches[i]);
+        resultModel.addAll(rows);
+
+        if (queryField.getText().isBlank()) {
+            countLabel.setText(index.size() + " formulas");
+        } else if (matches.length > shown) {
+            countLabel.setText(shown + " of " + matches.length + " matches");
+        } else {
+            countLabel.setText(matches.length + " matches");
+        }
+    }
+}
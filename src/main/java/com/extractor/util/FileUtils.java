@@ -1,13 +1,32 @@
 package com.extractor.util;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Utility class for common file operations.
  */
 public class FileUtils {
 
+    /**
+     * Input size above which {@link #openReader(String)} memory-maps the file.
+     */
+    public static final long MMAP_THRESHOLD_BYTES = 16L * 1024 * 1024;
+
+    /**
+     * Extension of gzip-compressed inputs, decompressed while reading.
+     */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Buffer size of the gzip decompressor, in bytes.
+     */
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
     /**
      * Reads entire file content into a string.
      *
@@ -19,6 +38,58 @@ public class FileUtils {
         return Files.readString(Paths.get(path));
     }
 
+    /**
+     * Opens a UTF-8 reader over the file for streaming consumption.
+     * <p>
+     * Files larger than {@link #MMAP_THRESHOLD_BYTES} are memory-mapped and
+     * decoded incrementally, so no heap copy of the content is made; smaller
+     * files use a regular buffered reader. Files ending in {@link #GZIP_EXTENSION}
+     * are decompressed on the fly, without a temporary file.
+     *
+     * @param path File path
+     * @return Reader positioned at the beginning of the file (caller closes it)
+     * @throws IOException if the file cannot be opened
+     */
+    public static Reader openReader(String path) throws IOException {
+        return openReader(path, null);
+    }
+
+    /**
+     * Opens a UTF-8 reader like {@link #openReader(String)} and keeps
+     * {@code bytesRead} updated with the number of input bytes consumed,
+     * so callers can report progress against the file size.
+     *
+     * @param path      File path
+     * @param bytesRead Counter receiving the consumed byte count, or {@code null}
+     * @return Reader positioned at the beginning of the file (caller closes it)
+     * @throws IOException if the file cannot be opened
+     */
+    public static Reader openReader(String path, AtomicLong bytesRead) throws IOException {
+        Path file = Paths.get(path);
+        if (isGzip(path)) {
+            InputStream in = Files.newInputStream(file);
+            if (bytesRead != null) in = new CountingInputStream(in, bytesRead);
+            return new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(in, GZIP_BUFFER_BYTES), StandardCharsets.UTF_8), GZIP_BUFFER_BYTES);
+        }
+        if (Files.size(file) > MMAP_THRESHOLD_BYTES) {
+            return new MappedFileReader(file, bytesRead);
+        }
+        if (bytesRead == null) {
+            return Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+        return new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(file), bytesRead), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param path File path or name
+     * @return {@code true} if the file is gzip-compressed, judged by its extension
+     */
+    public static boolean isGzip(String path) {
+        return path.toLowerCase(Locale.ROOT).endsWith(GZIP_EXTENSION);
+    }
+
     /**
      * Ensures directory exists (creates if missing).
      *
@@ -28,4 +99,38 @@ public class FileUtils {
         if (!dir.exists()) //noinspection ResultOfMethodCallIgnored
             dir.mkdirs();
     }
+
+    /**
+     * Input stream adding every byte read to a shared counter.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count.addAndGet(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.extractor.util;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a single file and runs a callback after it changes.
+ * <p>
+ * Built on {@link WatchService}: the parent directory is registered for
+ * create and modify events (editors and exporters often save through a
+ * temporary file plus rename), events for other files are ignored, and
+ * bursts of events are debounced so the callback runs once per save.
+ * <p>
+ * The callback runs on a single background thread, so two runs never
+ * overlap; a change arriving during a run schedules one more run.
+ * Note that some platforms (e.g. macOS) implement {@link WatchService}
+ * by polling, which adds a few seconds of latency.
+ */
+public final class FileWatcher implements AutoCloseable {
+
+    /**
+     * Default quiet period after the last event before the callback runs.
+     */
+    public static final long DEFAULT_DEBOUNCE_MS = 200;
+
+    private final Path file;
+    private final long debounceMs;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final ScheduledExecutorService scheduler;
+    private final Thread watchThread;
+
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Starts watching the file.
+     *
+     * @param file       File to watch
+     * @param debounceMs Quiet period after the last event before {@code onChange} runs
+     * @param onChange   Callback run on a background thread after the file changed
+     * @throws IOException if the parent directory cannot be watched
+     */
+    public FileWatcher(Path file, long debounceMs, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        this.debounceMs = debounceMs;
+        this.onChange = onChange;
+
+        Path dir = this.file.getParent();
+        if (dir == null) throw new IOException("Cannot watch " + file + ": no parent directory");
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "file-watcher-callback");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.watchThread = new Thread(this::watchLoop, "file-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    /**
+     * @return Watched file
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Receives watch events and schedules the debounced callback.
+     */
+    private void watchLoop() {
+        Path fileName = file.getFileName();
+
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                        relevant = true;
+                    }
+                }
+
+                if (relevant) schedule();
+                if (!key.reset()) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // Watcher closed
+        }
+    }
+
+    /**
+     * (Re)starts the debounce timer.
+     */
+    private synchronized void schedule() {
+        if (scheduler.isShutdown()) return;
+        if (pending != null) pending.cancel(false);
+        pending = scheduler.schedule(onChange, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops watching; a callback already running is allowed to finish.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+        if (pending != null) pending.cancel(false);
+        scheduler.shutdown();
+        watchThread.interrupt();
+    }
+}
@@ -0,0 +1,184 @@
+package com.extractor.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reader decoding a UTF-8 file straight from memory-mapped windows.
+ * <p>
+ * The file is mapped with {@link FileChannel#map} in windows of
+ * {@link #WINDOW_SIZE} bytes and decoded incrementally into the caller's
+ * buffer, so neither a heap copy of the bytes nor a heap-sized String is
+ * ever created. Windows are remapped as decoding advances, which also lifts
+ * the 2 GB limit of a single mapping.
+ * <p>
+ * Each window is mapped in its own {@link Arena} and unmapped as soon as it is
+ * replaced or the reader is closed, rather than whenever the garbage collector
+ * gets to it. On Windows a mapped file cannot be replaced, so a lingering
+ * mapping would make the next export of a watched input fail.
+ * <p>
+ * Malformed input is reported as {@link java.nio.charset.MalformedInputException},
+ * the same way {@link java.nio.file.Files#readString(Path)} does.
+ */
+final class MappedFileReader extends Reader {
+
+    /**
+     * Size of a single mapped window.
+     */
+    static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final AtomicLong bytesRead;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+    /**
+     * Currently mapped window, its offset in the file and the arena owning the mapping.
+     */
+    private ByteBuffer window;
+    private long windowStart;
+    private Arena windowArena;
+
+    /**
+     * Low surrogate left over when the caller asked for a single char of a pair.
+     */
+    private int pendingChar = -1;
+
+    private boolean endOfInput;
+    private boolean closed;
+
+    /**
+     * Opens and maps the first window of the file.
+     *
+     * @param path File to read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    MappedFileReader(Path path) throws IOException {
+        this(path, null);
+    }
+
+    /**
+     * Opens and maps the first window of the file.
+     *
+     * @param path      File to read
+     * @param bytesRead Counter set to the number of decoded bytes after each read, or {@code null}
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    MappedFileReader(Path path, AtomicLong bytesRead) throws IOException {
+        this.bytesRead = bytesRead;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            map(0);
+        } catch (IOException | RuntimeException e) {
+            unmap();
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (len == 0) return 0;
+
+        if (pendingChar >= 0) {
+            cbuf[off] = (char) pendingChar;
+            pendingChar = -1;
+            return 1;
+        }
+
+        if (endOfInput) return -1;
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        decodeInto(out);
+        if (bytesRead != null) bytesRead.set(windowStart + window.position());
+
+        int n = out.position() - off;
+        if (n > 0) return n;
+
+        // Output too small for a surrogate pair: decode into a scratch buffer
+        if (!endOfInput) {
+            CharBuffer pair = CharBuffer.allocate(2);
+            decodeInto(pair);
+            pair.flip();
+            if (pair.hasRemaining()) {
+                cbuf[off] = pair.get();
+                if (pair.hasRemaining()) pendingChar = pair.get();
+                return 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Decodes as many chars as fit into {@code out}, remapping windows as needed.
+     */
+    private void decodeInto(CharBuffer out) throws IOException {
+        int start = out.position();
+
+        while (true) {
+            boolean lastWindow = windowStart + window.limit() >= size;
+            CoderResult result = decoder.decode(window, out, lastWindow);
+            if (result.isError()) result.throwException();
+            if (result.isOverflow()) return;
+
+            // Underflow: window exhausted (possibly with a split multi-byte sequence left)
+            if (!lastWindow) {
+                map(windowStart + window.position());
+                if (out.position() > start) return;
+                continue;
+            }
+
+            result = decoder.flush(out);
+            if (result.isError()) result.throwException();
+            if (result.isUnderflow()) endOfInput = true;
+            return;
+        }
+    }
+
+    /**
+     * Maps the window starting at the given file offset and unmaps the previous one.
+     */
+    private void map(long offset) throws IOException {
+        Arena arena = Arena.ofShared();
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, size - offset), arena)
+                    .asByteBuffer();
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+        unmap();
+        windowStart = offset;
+        windowArena = arena;
+    }
+
+    private void unmap() {
+        if (windowArena != null) windowArena.close();
+        windowArena = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        window = null;
+        unmap();
+        channel.close();
+    }
+}
@@ -0,0 +1,296 @@
+package com.extractor.validation;
+
+import java.util.Arrays;
+
+/**
+ * Lightweight JavaScript syntax checker for formula bodies.
+ * <p>
+ * A single tokenizing pass over the source that skips comments, string,
+ * template and regular expression literals and tracks brackets on a stack.
+ * It finds the errors that typically break exported formulas:
+ * <ul>
+ *     <li>unbalanced or mismatched {@code ()}, {@code []} and {@code {}}</li>
+ *     <li>unterminated strings, template literals, block comments and regular expressions</li>
+ * </ul>
+ * It is not a parser: grammatically wrong but balanced code passes.
+ * Regular expressions are told apart from division by the previous token;
+ * a {@code ++} or {@code --} right after an operand is postfix and ends an operand too.
+ * <p>
+ * The bracket stack and the character buffer are kept between calls, so one
+ * instance per worker thread checks any number of formulas without allocating.
+ * Instances are not thread-safe.
+ */
+public final class JsSyntaxChecker {
+
+    /**
+     * Syntax error found in a formula.
+     *
+     * @param line    1-based line in the formula body
+     * @param column  1-based column in the formula body
+     * @param message Description of the error
+     */
+    public record SyntaxError(int line, int column, String message) {
+    }
+
+    /**
+     * Stack marker of an open {@code ${...}} substitution inside a template literal.
+     */
+    private static final char TEMPLATE = '$';
+
+    /**
+     * Keywords after which a {@code /} starts a regular expression rather than a division.
+     */
+    private static final char[][] REGEX_KEYWORDS = Arrays.stream(new String[]{"return", "typeof", "instanceof", "in",
+            "of", "new", "delete", "void", "throw", "case", "do", "else", "yield", "await"})
+            .map(String::toCharArray)
+            .toArray(char[][]::new);
+
+    private char[] source = new char[1024];
+    private int length;
+    private int pos;
+
+    private char[] open = new char[64];
+    /**
+     * Offset of each open bracket, or of the opening backtick for {@link #TEMPLATE} entries
+     */
+    private int[] openAt = new int[64];
+    private int depth;
+
+    /**
+     * Checks one formula body.
+     *
+     * @param formula JavaScript source
+     * @return First error found, or {@code null} if the formula looks well-formed
+     */
+    public SyntaxError check(String formula) {
+        length = formula.length();
+        if (length > source.length) source = new char[Math.max(length, source.length * 2)];
+        formula.getChars(0, length, source, 0);
+        pos = 0;
+        depth = 0;
+        return scan();
+    }
+
+    private SyntaxError scan() {
+        boolean regexAllowed = true;
+        while (pos < length) {
+            char c = source[pos];
+            switch (c) {
+                case ' ', '\t', '\n', '\r', '\f', '\u000B', '\u00A0', '\uFEFF' -> pos++;
+                case '/' -> {
+                    char next = pos + 1 < length ? source[pos + 1] : 0;
+                    if (next == '/') {
+                        skipLineComment();
+                    } else if (next == '*') {
+                        int start = pos;
+                        if (!skipBlockComment()) return error(start, "Unterminated comment");
+                    } else if (regexAllowed) {
+                        int start = pos;
+                        if (!skipRegex()) return error(start, "Unterminated regular expression");
+                        regexAllowed = false;
+                    } else {
+                        pos++;
+                        regexAllowed = true;
+                    }
+                }
+                case '\'', '"' -> {
+                    int start = pos;
+                    if (!skipString(c)) return error(start, "Unterminated string literal");
+                    regexAllowed = false;
+                }
+                case '`' -> {
+                    int start = pos++;
+                    SyntaxError error = scanTemplate(start);
+                    if (error != null) return error;
+                    regexAllowed = false;
+                }
+                case '(', '[', '{' -> {
+                    push(c, pos++);
+                    regexAllowed = true;
+                }
+                case ')', ']', '}' -> {
+                    if (depth == 0) return error(pos, "Unexpected '" + c + "'");
+                    char expected = closing(open[depth - 1]);
+                    if (c == '}' && open[depth - 1] == TEMPLATE) {
+                        int start = openAt[--depth];
+                        pos++;
+                        SyntaxError error = scanTemplate(start);
+                        if (error != null) return error;
+                        regexAllowed = false;
+                    } else if (c != expected) {
+                        return error(pos, "Expected '%s' to close '%s' at %s but found '%s'".formatted(
+                                expected, name(open[depth - 1]), position(openAt[depth - 1]), c));
+                    } else {
+                        depth--;
+                        pos++;
+                        regexAllowed = c == '}';
+                    }
+                }
+                default -> {
+                    if (isIdentifierPart(c)) {
+                        int start = pos;
+                        while (pos < length && isIdentifierPart(source[pos])) pos++;
+                        regexAllowed = !Character.isDigit(c) && isRegexKeyword(start, pos - start);
+                    } else if (c == '.' && pos + 1 < length && Character.isDigit(source[pos + 1])) {
+                        while (pos < length && (isIdentifierPart(source[pos]) || source[pos] == '.')) pos++;
+                        regexAllowed = false;
+                    } else if ((c == '+' || c == '-') && pos + 1 < length && source[pos + 1] == c) {
+                        // Postfix after an operand (i++ / 2) still ends an operand; prefix (++i) does not
+                        pos += 2;
+                    } else {
+                        pos++;
+                        regexAllowed = true;
+                    }
+                }
+            }
+        }
+
+        if (depth == 0) return null;
+        if (open[depth - 1] == TEMPLATE) return error(openAt[depth - 1], "Unterminated template literal");
+        return error(openAt[depth - 1], "Unclosed '" + open[depth - 1] + "'");
+    }
+
+    /**
+     * Skips template literal text up to its closing backtick, or up to a {@code ${...}}
+     * substitution whose code the caller then scans like any other code.
+     *
+     * @param start Offset of the opening backtick, for error positions
+     */
+    private SyntaxError scanTemplate(int start) {
+        while (pos < length) {
+            char c = source[pos++];
+            if (c == '\\') {
+                pos++;
+            } else if (c == '`') {
+                return null;
+            } else if (c == '$' && pos < length && source[pos] == '{') {
+                pos++;
+                push(TEMPLATE, start);
+                return null;
+            }
+        }
+        return error(start, "Unterminated template literal");
+    }
+
+    private boolean skipString(char quote) {
+        pos++;
+        while (pos < length) {
+            char c = source[pos++];
+            if (c == '\\') {
+                // Escaped character, including a line continuation
+                if (pos < length && source[pos] == '\r' && pos + 1 < length && source[pos + 1] == '\n') pos++;
+                pos++;
+            } else if (c == quote) {
+                return true;
+            } else if (c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void skipLineComment() {
+        while (pos < length && source[pos] != '\n' && source[pos] != '\r') pos++;
+    }
+
+    private boolean skipBlockComment() {
+        pos += 2;
+        while (pos + 1 < length) {
+            if (source[pos] == '*' && source[pos + 1] == '/') {
+                pos += 2;
+                return true;
+            }
+            pos++;
+        }
+        pos = length;
+        return false;
+    }
+
+    private boolean skipRegex() {
+        pos++;
+        boolean inClass = false;
+        while (pos < length) {
+            char c = source[pos++];
+            if (c == '\\') {
+                pos++;
+            } else if (c == '\n' || c == '\r') {
+                return false;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                while (pos < length && isIdentifierPart(source[pos])) pos++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the identifier at {@code source[start, start + length)} is one of {@link #REGEX_KEYWORDS}
+     */
+    private boolean isRegexKeyword(int start, int length) {
+        for (char[] keyword : REGEX_KEYWORDS) {
+            if (keyword.length == length && Arrays.equals(source, start, start + length, keyword, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void push(char bracket, int offset) {
+        if (depth == open.length) {
+            open = Arrays.copyOf(open, depth * 2);
+            openAt = Arrays.copyOf(openAt, depth * 2);
+        }
+        open[depth] = bracket;
+        openAt[depth++] = offset;
+    }
+
+    private static char closing(char bracket) {
+        return switch (bracket) {
+            case '(' -> ')';
+            case '[' -> ']';
+            default -> '}';
+        };
+    }
+
+    private static String name(char bracket) {
+        return bracket == TEMPLATE ? "${" : String.valueOf(bracket);
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$'
+                || (c > 0x7F && Character.isLetterOrDigit(c));
+    }
+
+    /**
+     * Creates an error at an offset, computing line and column only now that they are needed.
+     */
+    private SyntaxError error(int offset, String message) {
+        int[] lineColumn = lineColumn(offset);
+        return new SyntaxError(lineColumn[0], lineColumn[1], message);
+    }
+
+    private String position(int offset) {
+        int[] lineColumn = lineColumn(offset);
+        return lineColumn[0] + ":" + lineColumn[1];
+    }
+
+    /**
+     * @return 1-based line and column of an offset; {@code \r\n}, {@code \n} and {@code \r} end a line
+     */
+    private int[] lineColumn(int offset) {
+        int line = 1;
+        int lineStart = 0;
+        for (int i = 0; i < offset; i++) {
+            char c = source[i];
+            if (c == '\n' || (c == '\r' && (i + 1 >= length || source[i + 1] != '\n'))) {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+        return new int[]{line, offset - lineStart + 1};
+    }
+}
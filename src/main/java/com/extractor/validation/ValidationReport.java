@@ -0,0 +1,200 @@
+package com.extractor.validation;
+
+import com.extractor.model.FieldData;
+import com.extractor.ui.ProgressCallback;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Syntax check of every extracted formula, with the invalid ones listed by line and column.
+ * <p>
+ * Formulas are checked with {@link JsSyntaxChecker} in parallel on the common
+ * fork-join pool. Each worker thread keeps one checker, so its buffers are reused
+ * across all formulas the worker checks. Identical formula bodies share one
+ * instance (see {@link com.extractor.model.FieldStore}), so a body repeated by
+ * consecutive fields is checked once. Outputs start the check with
+ * {@link #start} before writing and {@link #export} the report afterwards, so
+ * the check runs while files are being written.
+ * <p>
+ * Instances are immutable.
+ */
+public final class ValidationReport {
+
+    /**
+     * Name of the report file written next to the extracted JS.
+     */
+    public static final String FILE_NAME = "Validation.txt";
+
+    /**
+     * Number of invalid formulas also written to the log.
+     */
+    private static final int LOGGED_ISSUES = 10;
+
+    private static final ThreadLocal<JsSyntaxChecker> CHECKERS = ThreadLocal.withInitial(JsSyntaxChecker::new);
+
+    /**
+     * Invalid formula.
+     *
+     * @param field Field holding the formula
+     * @param error First syntax error of the formula
+     */
+    public record Issue(FieldData field, JsSyntaxChecker.SyntaxError error) {
+
+        /**
+         * @return One-line description, e.g. {@code "TSAQty (3:14): Unclosed '('"}
+         */
+        public String describe() {
+            return "%s (%d:%d): %s".formatted(field.fieldId(), error.line(), error.column(), error.message());
+        }
+    }
+
+    private final int checked;
+    private final List<Issue> issues;
+
+    private ValidationReport(int checked, List<Issue> issues) {
+        this.checked = checked;
+        this.issues = issues;
+    }
+
+    /**
+     * Checks every formula of the given fields.
+     *
+     * @param fields Extracted fields
+     * @return Report listing the invalid formulas in field order
+     */
+    public static ValidationReport of(List<FieldData> fields) {
+        JsSyntaxChecker.SyntaxError[] errors = new JsSyntaxChecker.SyntaxError[fields.size()];
+        IntStream.range(0, fields.size()).parallel().forEach(i -> {
+            String formula = fields.get(i).formula();
+            // Identical bodies of consecutive fields are the same instance; reuse the result below
+            if (i > 0 && formula == fields.get(i - 1).formula()) return;
+            errors[i] = CHECKERS.get().check(formula);
+        });
+
+        List<Issue> issues = new ArrayList<>();
+        JsSyntaxChecker.SyntaxError previous = null;
+        for (int i = 0; i < fields.size(); i++) {
+            FieldData fd = fields.get(i);
+            boolean repeated = i > 0 && fd.formula() == fields.get(i - 1).formula();
+            JsSyntaxChecker.SyntaxError error = repeated ? previous : errors[i];
+            if (error != null) issues.add(new Issue(fd, error));
+            previous = error;
+        }
+        return new ValidationReport(fields.size(), List.copyOf(issues));
+    }
+
+    /**
+     * Starts checking the fields in the background, if enabled.
+     *
+     * @param fields  Extracted fields, not modified while the check runs
+     * @param enabled Whether validation was requested
+     * @return Pending report, or {@code null} when disabled
+     */
+    public static CompletableFuture<ValidationReport> start(List<FieldData> fields, boolean enabled) {
+        return enabled ? CompletableFuture.supplyAsync(() -> of(fields)) : null;
+    }
+
+    /**
+     * Waits for a report started by {@link #start}, writes it next to the output and logs its summary
+     * and first invalid formulas. Does nothing for a disabled check.
+     *
+     * @param pending  Pending report, or {@code null}
+     * @param target   Output folder, or archive file
+     * @param archive  Whether {@code target} is an archive file
+     * @param callback Callback receiving the summary, or a failure
+     */
+    public static void export(CompletableFuture<ValidationReport> pending, File target, boolean archive,
+                              ProgressCallback callback) {
+        if (pending == null) return;
+        ValidationReport report = pending.join();
+        File file = fileFor(target, archive);
+        try {
+            report.export(file.toPath());
+            callback.log(report.summary());
+            for (Issue issue : report.issues.subList(0, Math.min(LOGGED_ISSUES, report.issues.size()))) {
+                callback.log("INVALID: " + issue.describe());
+            }
+            if (report.issues.size() > LOGGED_ISSUES) {
+                callback.log("All invalid formulas: " + file.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            callback.error(FILE_NAME + " → " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves where the report of an output goes: inside an output folder,
+     * or next to an output archive as {@code <name>.Validation.txt}.
+     *
+     * @param target  Output folder, or archive file
+     * @param archive Whether {@code target} is an archive file
+     * @return Report file
+     */
+    public static File fileFor(File target, boolean archive) {
+        if (!archive) return new File(target, FILE_NAME);
+        String name = target.getName().replaceFirst("\\.zip$", "");
+        return new File(target.getAbsoluteFile().getParentFile(), name + "." + FILE_NAME);
+    }
+
+    /**
+     * @return Invalid formulas, in field order
+     */
+    public List<Issue> issues() {
+        return issues;
+    }
+
+    /**
+     * @return Number of formulas checked
+     */
+    public int checked() {
+        return checked;
+    }
+
+    /**
+     * @return One-line summary suitable for the log
+     */
+    public String summary() {
+        return "Formula validation: %d checked, %d invalid".formatted(checked, issues.size());
+    }
+
+    /**
+     * Renders the report as text, one invalid formula per line.
+     *
+     * @return Report file content
+     */
+    public String render() {
+        StringBuilder sb = new StringBuilder(96 * issues.size() + 128);
+        sb.append("# ").append(summary()).append('\n');
+        sb.append("\n# Invalid formulas (Section\tFieldID\tLabel\tLine:Column in JSFormula\tProblem)\n");
+        for (Issue issue : issues) {
+            FieldData fd = issue.field();
+            sb.append(fd.section()).append('\t')
+                    .append(fd.fieldId()).append('\t')
+                    .append(fd.label()).append('\t')
+                    .append(issue.error().line()).append(':').append(issue.error().column()).append('\t')
+                    .append(issue.error().message()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@link #render()} to a file via a temporary file.
+     *
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    public void export(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, render(), StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}